@@ -1,7 +1,9 @@
 package com.example.demo;
 
 import io.grpc.*;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.web.WebProperties;
@@ -13,13 +15,13 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.*;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
 
@@ -41,11 +43,19 @@ public class DemoApplication {
     @Configuration
     static class HandlerServerConfig {
         @Bean
-        EchoServiceRest.EchoServiceHandler example(ManagedChannel channel) {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy example(ManagedChannel channel, MeterRegistry meterRegistry,
+                                                            @Value("${demo.slow-call-threshold:200ms}") Duration slowCallThreshold) {
             EchoServiceGrpc.EchoServiceStub stub = EchoServiceGrpc.newStub(channel);
             return EchoServiceRest.newGrpcProxyBuilder()
                     .setStub(stub)
                     .setIncludeHeaders(Collections.singletonList("my-header-2"))
+                    .setMeterRegistry(meterRegistry)
+                    .setCostSampling(100)
+                    .setSlowCallThreshold(slowCallThreshold)
+                    .addComposition(EchoServiceRest.newComposition("/echo_page/{id}")
+                            .addBranch("echo", EchoServiceRest.Route.GET_ECHO, Duration.ofSeconds(1), EchoServiceRest.FailurePolicy.FAIL)
+                            .addBranch("error", EchoServiceRest.Route.ERROR_ECHO, Duration.ofSeconds(1), EchoServiceRest.FailurePolicy.EMBED_ERROR)
+                            .addBranch("single", EchoServiceRest.Route.SINGLE_GET_ECHO, Duration.ofSeconds(1), EchoServiceRest.FailurePolicy.OMIT))
                     .build();
         }
 
@@ -61,6 +71,23 @@ public class DemoApplication {
 //            };
 //        }
 
+        @Bean
+        RouteCostEndpoint routeCostEndpoint(EchoServiceRest.EchoServiceHandlerGrpcProxy proxy) {
+            return new RouteCostEndpoint(proxy);
+        }
+
+        // Runners complete before the application is ready, so readiness waits for the warm-up.
+        @Bean
+        ApplicationRunner warmUp(EchoServiceRest.EchoServiceHandlerGrpcProxy proxy,
+                                 @Value("${demo.warm-up-iterations:200}") int iterations) {
+            return args -> proxy.warmUp(iterations);
+        }
+
+        @Bean
+        SlowCallEndpoint slowCallEndpoint(EchoServiceRest.EchoServiceHandlerGrpcProxy proxy) {
+            return new SlowCallEndpoint(proxy);
+        }
+
         @Bean
         RouterFunction<ServerResponse> routingServer(EchoServiceRest.EchoServiceHandler handler) {
             return RouterFunctions.route()
@@ -99,59 +126,16 @@ public class DemoApplication {
             Mono<ServerResponse> renderErrorResponse(ServerRequest request) {
                 Map<String, Object> errorPropertiesMap = getErrorAttributes(request,
                         ErrorAttributeOptions.of(ErrorAttributeOptions.Include.MESSAGE));
+                // The proxy is built without setErrorResponses(true), so failed gRPC calls end up here too.
                 Throwable error = getError(request);
-                HttpStatus status = (error instanceof StatusRuntimeException)
-                        ? HttpStatus.valueOf(grpcCodeToHttpCode(error))
-                        : httpStatus(errorPropertiesMap);
+                int status = (error instanceof StatusRuntimeException)
+                        ? EchoServiceRest.ErrorResponses.httpStatus(((StatusRuntimeException) error).getStatus().getCode())
+                        : (int) errorPropertiesMap.get("status");
 
                 return ServerResponse.status(status)
                         .contentType(MediaType.APPLICATION_JSON)
                         .body(BodyInserters.fromValue(errorPropertiesMap));
             }
-
-            int grpcCodeToHttpCode(Throwable error) {
-                switch (((StatusRuntimeException) error).getStatus().getCode()) {
-                    case CANCELLED:
-                        return 499;
-                    case UNKNOWN:
-                        return 500;
-                    case INVALID_ARGUMENT:
-                        return 400;
-                    case DEADLINE_EXCEEDED:
-                        return 504;
-                    case NOT_FOUND:
-                        return 404;
-                    case ALREADY_EXISTS:
-                        return 409;
-                    case PERMISSION_DENIED:
-                        return 403;
-                    case UNAUTHENTICATED:
-                        return 401;
-                    case RESOURCE_EXHAUSTED:
-                        return 429;
-                    case FAILED_PRECONDITION:
-                        return 400;
-                    case ABORTED:
-                        return 409;
-                    case OUT_OF_RANGE:
-                        return 400;
-                    case UNIMPLEMENTED:
-                        return 501;
-                    case INTERNAL:
-                        return 500;
-                    case UNAVAILABLE:
-                        return 503;
-                    case DATA_LOSS:
-                        return 500;
-                    default:
-                        return 500;
-                }
-            }
-
-            HttpStatus httpStatus(Map<String, Object> errorAttributes) {
-                int statusCode = (int) errorAttributes.get("status");
-                return HttpStatus.valueOf(statusCode);
-            }
         };
         exceptionHandler.setMessageWriters(serverCodecConfigurer.getWriters());
         exceptionHandler.setMessageReaders(serverCodecConfigurer.getReaders());
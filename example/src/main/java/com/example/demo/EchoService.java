@@ -166,6 +166,16 @@ public class EchoService extends EchoServiceGrpc.EchoServiceImplBase {
         ok(responseObserver, res);
     }
 
+    @Override
+    public void streamEcho(GetEchoRequest request, StreamObserver<GetEchoResponse> responseObserver) {
+        for (int i = 0; i < 3; i++) {
+            responseObserver.onNext(GetEchoResponse.newBuilder()
+                    .setEcho(createEcho(request.getId() + i, "EchoService#streamEcho"))
+                    .build());
+        }
+        responseObserver.onCompleted();
+    }
+
     private Echo createEcho(long id, String text) {
         return Echo.newBuilder()
                 .setId(id)
@@ -0,0 +1,28 @@
+package com.example.demo;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Lists the routes of the proxy by their sampled CPU time per call, the most expensive first.
+ */
+@Endpoint(id = "routecosts")
+public class RouteCostEndpoint {
+
+    private final EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    public RouteCostEndpoint(EchoServiceRest.EchoServiceHandlerGrpcProxy proxy) {
+        this.proxy = proxy;
+    }
+
+    @ReadOperation
+    public List<EchoServiceRest.RouteCost> routeCosts() {
+        return proxy.getRouteCosts().stream()
+                .sorted(Comparator.comparingLong(EchoServiceRest.RouteCost::getCpuNanosPerCall).reversed())
+                .collect(Collectors.toList());
+    }
+}
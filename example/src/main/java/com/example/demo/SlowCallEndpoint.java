@@ -0,0 +1,24 @@
+package com.example.demo;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * Dumps the latest slow calls of the proxy, the slowest first.
+ */
+@Endpoint(id = "slowcalls")
+public class SlowCallEndpoint {
+
+    private final EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    public SlowCallEndpoint(EchoServiceRest.EchoServiceHandlerGrpcProxy proxy) {
+        this.proxy = proxy;
+    }
+
+    @ReadOperation
+    public List<EchoServiceRest.SlowCall> slowCalls() {
+        return proxy.getSlowCalls();
+    }
+}
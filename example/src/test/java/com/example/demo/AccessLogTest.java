@@ -0,0 +1,73 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessLogTest {
+
+    private final List<String> lines = new CopyOnWriteArrayList<>();
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void writes_a_line_per_call() {
+        EchoServiceRest.AccessLog accessLog = new EchoServiceRest.AccessLog(16, 1, lines::add);
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setAccessLog(accessLog)
+                .build();
+
+        proxy.getEcho(MockServerRequest.builder().pathVariable("id", "1").build()).block();
+        assertThrows(RuntimeException.class, () -> proxy.errorEcho(MockServerRequest.builder().pathVariable("id", "1").build()).block());
+        accessLog.close();
+
+        assertEquals(2, lines.size(), lines.toString());
+        assertTrue(lines.get(0).contains(" GET_ECHO GET ") && lines.get(0).contains(" 200 OK in=0 out="), lines.get(0));
+        assertTrue(lines.get(0).contains(" backend="), lines.get(0));
+        assertTrue(lines.get(1).contains(" ERROR_ECHO ") && lines.get(1).contains(" 400 INVALID_ARGUMENT "), lines.get(1));
+    }
+
+    @Test
+    void drops_calls_instead_of_waiting_for_the_writer() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        EchoServiceRest.AccessLog accessLog = new EchoServiceRest.AccessLog(2, 1, line -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lines.add(line);
+        });
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setAccessLog(accessLog)
+                .build();
+
+        proxy.getEcho(MockServerRequest.builder().pathVariable("id", "1").build()).block();
+        writing.await();
+        for (int i = 0; i < 5; i++) {
+            proxy.getEcho(MockServerRequest.builder().pathVariable("id", "1").build()).block();
+        }
+        release.countDown();
+        accessLog.close();
+
+        assertEquals(3, accessLog.getDropped());
+        assertEquals(3, lines.size());
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the proxy against a simulated backend on a simulated clock. The backend serves {@code capacity}
+ * calls in parallel within the base latency, and slows down proportionally beyond that.
+ */
+class AdaptiveLimitTest {
+
+    private static final long BASE_LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final PriorityQueue<PendingCall> pendingCalls = new PriorityQueue<>(Comparator.comparingLong(call -> call.dueTime));
+
+    private Server server;
+    private ManagedChannel channel;
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+    private EchoServiceRest.Bulkhead bulkhead;
+    private long now;
+    private int capacity;
+    private int completedCalls;
+    private int rejectedCalls;
+    private long maxLatency;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new EchoServiceGrpc.EchoServiceImplBase() {
+                    @Override
+                    public void getEcho(GetEchoRequest request, StreamObserver<GetEchoResponse> responseObserver) {
+                        double load = Math.max(1.0, (pendingCalls.size() + 1) / (double) capacity);
+                        pendingCalls.add(new PendingCall(now + (long) (BASE_LATENCY * load), responseObserver));
+                    }
+                })
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setStub(EchoServiceGrpc.newStub(channel))
+                .setAdaptiveConcurrencyLimit(EchoServiceRest.Route.GET_ECHO, 10, 1, 1000, 0)
+                .setNanoClock(() -> now)
+                .build();
+        bulkhead = proxy.getBulkhead(EchoServiceRest.Route.GET_ECHO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void limit_settles_near_backend_capacity_under_overload() {
+        capacity = 20;
+        // 5 calls per millisecond at 10ms need 50 calls in flight, 2.5 times the capacity of the backend.
+        simulate(TimeUnit.SECONDS.toNanos(5), 5);
+        maxLatency = 0;
+        simulate(TimeUnit.SECONDS.toNanos(5), 5);
+
+        int limit = bulkhead.getMaxConcurrentCalls();
+        assertTrue(limit >= capacity / 2 && limit <= capacity * 2, "limit " + limit);
+        assertTrue(rejectedCalls > 0);
+        assertTrue(maxLatency <= BASE_LATENCY * 3, "latency " + maxLatency);
+    }
+
+    @Test
+    void limit_follows_backend_capacity_up() {
+        capacity = 20;
+        simulate(TimeUnit.SECONDS.toNanos(5), 5);
+        int overloadedLimit = bulkhead.getMaxConcurrentCalls();
+
+        capacity = 100;
+        simulate(TimeUnit.SECONDS.toNanos(5), 5);
+
+        int limit = bulkhead.getMaxConcurrentCalls();
+        assertTrue(limit > overloadedLimit * 2, "limit " + limit + " after " + overloadedLimit);
+        assertTrue(limit >= 50, "limit " + limit);
+    }
+
+    @Test
+    void limit_is_not_raised_by_light_load() {
+        capacity = 20;
+        // 1 call per millisecond at 10ms keeps 10 calls in flight, the initial limit is never used up.
+        simulate(TimeUnit.SECONDS.toNanos(5), 1);
+
+        assertTrue(bulkhead.getMaxConcurrentCalls() <= 20, "limit " + bulkhead.getMaxConcurrentCalls());
+        assertEquals(0, rejectedCalls);
+    }
+
+    @Test
+    void overload_errors_cut_the_limit() {
+        EchoServiceRest.AdaptiveLimit limit = new EchoServiceRest.AdaptiveLimit(100, 5, 1000);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(i * BASE_LATENCY, BASE_LATENCY, 1, true);
+        }
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    void overload_errors_within_a_window_cut_a_small_limit() {
+        EchoServiceRest.AdaptiveLimit limit = new EchoServiceRest.AdaptiveLimit(4, 1, 1000);
+        // Calls overlap, so a window closes every 4 calls, after the one that was dropped.
+        for (int i = 0; i < 16; i++) {
+            limit.onSample(i * BASE_LATENCY / 4, BASE_LATENCY, 4, i % 4 == 1);
+        }
+        assertEquals(1, limit.getLimit());
+    }
+
+    private void simulate(long duration, int callsPerTick) {
+        long end = now + duration;
+        while (now < end) {
+            now += TICK;
+            while (!pendingCalls.isEmpty() && pendingCalls.peek().dueTime <= now) {
+                PendingCall call = pendingCalls.poll();
+                call.observer.onNext(GetEchoResponse.getDefaultInstance());
+                call.observer.onCompleted();
+            }
+            for (int i = 0; i < callsPerTick; i++) {
+                long start = now;
+                proxy.getEcho(MockServerRequest.builder().pathVariable("id", "1").build())
+                        .subscribe(response -> {
+                            completedCalls++;
+                            maxLatency = Math.max(maxLatency, now - start);
+                        }, e -> {
+                            if (e instanceof EchoServiceRest.RejectedCallException) {
+                                rejectedCalls++;
+                            }
+                        });
+            }
+        }
+    }
+
+    private static final class PendingCall {
+
+        private final long dueTime;
+        private final StreamObserver<GetEchoResponse> observer;
+
+        private PendingCall(long dueTime, StreamObserver<GetEchoResponse> observer) {
+            this.dueTime = dueTime;
+            this.observer = observer;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo;
+
+import io.grpc.ConnectivityState;
+import io.grpc.Server;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(EchoServiceRest.AutoConfiguration.class));
+
+    private Server server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = NettyServerBuilder.forPort(0)
+                .directExecutor()
+                .addService(new EchoServiceGrpc.EchoServiceImplBase() {
+                    @Override
+                    public void getEcho(GetEchoRequest request, StreamObserver<GetEchoResponse> responseObserver) {
+                        responseObserver.onNext(GetEchoResponse.getDefaultInstance());
+                        responseObserver.onCompleted();
+                    }
+                })
+                .build()
+                .start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.shutdownNow();
+    }
+
+    @Test
+    void backs_off_without_an_address() {
+        contextRunner.run(context -> {
+            assertTrue(context.getBeansOfType(EchoServiceRest.Channels.class).isEmpty());
+            assertTrue(context.getBeansOfType(EchoServiceRest.EchoServiceHandler.class).isEmpty());
+        });
+    }
+
+    @Test
+    void runs_channels_on_the_event_loops_of_the_web_server() {
+        contextRunner
+                .withBean(ReactorResourceFactory.class, () -> {
+                    ReactorResourceFactory factory = new ReactorResourceFactory();
+                    factory.setUseGlobalResources(false);
+                    factory.setLoopResources(LoopResources.create("shared", 2, true));
+                    return factory;
+                })
+                .withPropertyValues("grpc.proxy.echo-service.address=localhost:" + server.getPort(),
+                        "grpc.proxy.echo-service.plaintext=true")
+                .run(context -> {
+                    EventLoopGroup serverLoops = context.getBean(ReactorResourceFactory.class).getLoopResources().onServer(true);
+                    Set<EventExecutor> expected = new HashSet<>();
+                    serverLoops.forEach(expected::add);
+                    assertEquals(expected, context.getBean(EchoServiceRest.Channels.class).getChannels().keySet());
+
+                    EchoServiceRest.EchoServiceHandler handler = context.getBean(EchoServiceRest.EchoServiceHandler.class);
+                    assertEquals(HttpStatus.OK, handler.getEcho(MockServerRequest.builder().pathVariable("id", "1").build())
+                            .block(Duration.ofSeconds(5)).statusCode());
+                    assertEquals(1, context.getBeansOfType(RouterFunction.class).size());
+                    assertNull(handler.getEcho(MockServerRequest.builder().pathVariable("id", "1").build())
+                            .block(Duration.ofSeconds(5)).headers().getETag());
+                });
+    }
+
+    @Test
+    void tags_responses_when_etags_are_enabled() {
+        contextRunner
+                .withPropertyValues("grpc.proxy.echo-service.address=localhost:" + server.getPort(),
+                        "grpc.proxy.echo-service.plaintext=true",
+                        "grpc.proxy.echo-service.etags=true")
+                .run(context -> {
+                    EchoServiceRest.EchoServiceHandler handler = context.getBean(EchoServiceRest.EchoServiceHandler.class);
+                    assertNotNull(handler.getEcho(MockServerRequest.builder().pathVariable("id", "1").build())
+                            .block(Duration.ofSeconds(5)).headers().getETag());
+                });
+    }
+
+    @Test
+    void keeps_a_user_defined_handler() {
+        EchoServiceRest.EchoServiceHandler handler = new EchoServiceRest.EchoServiceHandler() {
+        };
+        contextRunner
+                .withBean(EchoServiceRest.EchoServiceHandler.class, () -> handler)
+                .withPropertyValues("grpc.proxy.echo-service.address=localhost:" + server.getPort(),
+                        "grpc.proxy.echo-service.register-routes=false")
+                .run(context -> {
+                    assertEquals(handler, context.getBean(EchoServiceRest.EchoServiceHandler.class));
+                    assertTrue(context.getBeansOfType(EchoServiceRest.Channels.class).isEmpty());
+                    assertTrue(context.getBeansOfType(RouterFunction.class).isEmpty());
+                });
+    }
+
+    @Test
+    void backs_off_without_the_netty_transport() {
+        contextRunner
+                .withClassLoader(new FilteredClassLoader(NettyChannelBuilder.class))
+                .withPropertyValues("grpc.proxy.echo-service.address=localhost:" + server.getPort())
+                .run(context -> {
+                    assertTrue(context.getBeansOfType(EchoServiceRest.Channels.class).isEmpty());
+                    assertTrue(context.getBeansOfType(EchoServiceRest.EchoServiceHandler.class).isEmpty());
+                });
+    }
+
+    @Test
+    void warms_up_before_the_application_is_ready() {
+        contextRunner
+                .withPropertyValues("grpc.proxy.echo-service.address=localhost:" + server.getPort(),
+                        "grpc.proxy.echo-service.plaintext=true",
+                        "grpc.proxy.echo-service.warm-up-iterations=5")
+                .run(context -> {
+                    context.getBean(ApplicationRunner.class).run(null);
+                    context.getBean(EchoServiceRest.Channels.class).getChannels().values()
+                            .forEach(channel -> assertNotEquals(ConnectivityState.IDLE, channel.getState(false)));
+                });
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the asynchronous proxy to the blocking proxy on virtual threads (or on the bounded elastic scheduler
+ * before Java 21), with the same backend latency and number of concurrent calls.
+ * Run with {@code ./gradlew :example:test --tests '*BlockingCallBenchmark' -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BlockingCallBenchmark {
+
+    private static final int CALLS = 20_000;
+    private static final int CONCURRENCY = 64;
+
+    @Test
+    void compare() throws Exception {
+        Server server = NettyServerBuilder.forPort(0)
+                .directExecutor()
+                .addService(new EchoServiceGrpc.EchoServiceImplBase() {
+                    @Override
+                    public void getEcho(GetEchoRequest request, StreamObserver<GetEchoResponse> responseObserver) {
+                        responseObserver.onNext(GetEchoResponse.getDefaultInstance());
+                        responseObserver.onCompleted();
+                    }
+                })
+                .build()
+                .start();
+        ManagedChannel channel = NettyChannelBuilder.forAddress("localhost", server.getPort())
+                .usePlaintext()
+                .build();
+        Scheduler scheduler = EchoServiceRest.virtualThreadScheduler();
+        try {
+            EchoServiceRest.EchoServiceHandlerGrpcProxy asyncProxy = EchoServiceRest.newGrpcProxyBuilder()
+                    .setStub(EchoServiceGrpc.newStub(channel))
+                    .build();
+            EchoServiceRest.EchoServiceHandlerGrpcProxy blockingProxy = EchoServiceRest.newGrpcProxyBuilder()
+                    .setStub(EchoServiceGrpc.newStub(channel))
+                    .setBlockingScheduler(scheduler)
+                    .build();
+
+            // Warm up both setups before measuring.
+            run(asyncProxy);
+            run(blockingProxy);
+            long asyncNanos = run(asyncProxy);
+            long blockingNanos = run(blockingProxy);
+            System.out.println("async stub:     " + format(asyncNanos));
+            System.out.println("blocking stub:  " + format(blockingNanos) + " on " + scheduler);
+        } finally {
+            scheduler.dispose();
+            channel.shutdownNow();
+            server.shutdownNow();
+        }
+    }
+
+    private static long run(EchoServiceRest.EchoServiceHandlerGrpcProxy proxy) {
+        long start = System.nanoTime();
+        long count = Flux.range(0, CALLS)
+                .flatMap(i -> proxy.getEcho(MockServerRequest.builder().pathVariable("id", "1").build()), CONCURRENCY)
+                .count()
+                .block();
+        assertEquals(CALLS, count);
+        return System.nanoTime() - start;
+    }
+
+    private static String format(long nanos) {
+        return String.format("%,d calls/s", CALLS * TimeUnit.SECONDS.toNanos(1) / nanos);
+    }
+}
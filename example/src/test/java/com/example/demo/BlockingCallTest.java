@@ -0,0 +1,125 @@
+package com.example.demo;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockingCallTest {
+
+    private final List<ServerCallStreamObserver<GetEchoResponse>> calls = new CopyOnWriteArrayList<>();
+    private final List<Thread> callThreads = new CopyOnWriteArrayList<>();
+
+    private Server server;
+    private ManagedChannel channel;
+    private Scheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new EchoServiceGrpc.EchoServiceImplBase() {
+                    @Override
+                    public void getEcho(GetEchoRequest request, StreamObserver<GetEchoResponse> responseObserver) {
+                        calls.add((ServerCallStreamObserver<GetEchoResponse>) responseObserver);
+                        callThreads.add(Thread.currentThread());
+                        if (request.getId() == 1) {
+                            responseObserver.onNext(GetEchoResponse.getDefaultInstance());
+                            responseObserver.onCompleted();
+                        } else if (request.getId() == 2) {
+                            responseObserver.onError(Status.NOT_FOUND.asRuntimeException());
+                        }
+                    }
+
+                    @Override
+                    public void streamEcho(GetEchoRequest request, StreamObserver<GetEchoResponse> responseObserver) {
+                        calls.add((ServerCallStreamObserver<GetEchoResponse>) responseObserver);
+                        responseObserver.onNext(GetEchoResponse.getDefaultInstance());
+                        responseObserver.onNext(GetEchoResponse.getDefaultInstance());
+                    }
+                })
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        scheduler = EchoServiceRest.virtualThreadScheduler();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        scheduler.dispose();
+    }
+
+    @Test
+    void calls_the_backend_on_the_scheduler() {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxyBuilder().build();
+
+        assertEquals(HttpStatus.OK, proxy.getEcho(request("1")).block(Duration.ofSeconds(5)).statusCode());
+        assertNotSame(Thread.currentThread(), callThreads.get(0));
+    }
+
+    @Test
+    void answers_streaming_routes_with_the_first_response() {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxyBuilder().build();
+
+        assertEquals(HttpStatus.OK, proxy.streamEcho(request("1")).block(Duration.ofSeconds(5)).statusCode());
+        assertTrue(calls.get(0).isCancelled());
+    }
+
+    @Test
+    void reports_the_status_of_failed_calls() {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxyBuilder().build();
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> proxy.getEcho(request("2")).block(Duration.ofSeconds(5)));
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+    }
+
+    @Test
+    void cancelling_interrupts_the_blocked_call() throws Exception {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxyBuilder().build();
+
+        Disposable call = proxy.getEcho(request("3")).subscribe();
+        for (int i = 0; i < 100 && calls.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        call.dispose();
+        for (int i = 0; i < 100 && !calls.get(0).isCancelled(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(calls.get(0).isCancelled());
+        assertEquals(0, proxy.getStubPool().getInFlightCalls(0));
+    }
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy.Builder newProxyBuilder() {
+        return EchoServiceRest.newGrpcProxyBuilder()
+                .setStub(EchoServiceGrpc.newStub(channel))
+                .setBlockingScheduler(scheduler);
+    }
+
+    private static MockServerRequest request(String id) {
+        return MockServerRequest.builder().pathVariable("id", id).build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BodyLimitTest {
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(new UnpooledByteBufAllocator(false));
+    private final List<DataBuffer> buffers = new ArrayList<>();
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void rejects_oversized_bodies_while_reading() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setMaxRequestSize(EchoServiceRest.Route.NEW_ECHO, 32)
+                .build();
+
+        assertEquals(HttpStatus.OK, proxy.newEcho(MockServerRequest.builder()
+                .body(Flux.just(buffer("{\"id\": 1, "), buffer("\"content\": \"a\"}"))))
+                .block().statusCode());
+
+        assertRejected(HttpStatus.PAYLOAD_TOO_LARGE, MockServerRequest.builder()
+                .body(Flux.just(buffer("{\"id\": 1, "), buffer("\"content\": \"long enough\"}"))));
+        assertReleased();
+        assertEquals(0, proxy.getInFlightRequestBytes());
+    }
+
+    @Test
+    void rejects_on_content_length_before_reading() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setMaxRequestSize(32)
+                .build();
+
+        assertRejected(HttpStatus.PAYLOAD_TOO_LARGE, MockServerRequest.builder()
+                .header(HttpHeaders.CONTENT_LENGTH, "1000")
+                .body(Flux.error(new AssertionError("read"))));
+    }
+
+    @Test
+    void rejects_bodies_that_decompress_over_the_limit() throws Exception {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setMaxRequestSize(1024)
+                .build();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(("{\"content\": \"" + "a".repeat(10_000) + "\"}").getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertRejected(HttpStatus.PAYLOAD_TOO_LARGE, MockServerRequest.builder()
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(Flux.just(bufferFactory.wrap(compressed.toByteArray()))));
+    }
+
+    @Test
+    void caps_the_bytes_in_flight() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setMaxInFlightRequestBytes(16)
+                .build();
+
+        assertRejected(HttpStatus.SERVICE_UNAVAILABLE, MockServerRequest.builder()
+                .body(Flux.just(buffer("{\"id\": 1, "), buffer("\"content\": \"a\"}"))));
+        assertReleased();
+        assertEquals(0, proxy.getInFlightRequestBytes());
+
+        assertEquals(HttpStatus.OK, proxy.newEcho(MockServerRequest.builder()
+                .body(Flux.just(buffer("{\"id\": 1}"))))
+                .block().statusCode());
+        assertEquals(0, proxy.getInFlightRequestBytes());
+    }
+
+    private void assertRejected(HttpStatus status, MockServerRequest request) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> proxy.newEcho(request).block());
+        assertEquals(status, e.getStatus());
+    }
+
+    private void assertReleased() {
+        for (DataBuffer buffer : buffers) {
+            assertEquals(0, ((org.springframework.core.io.buffer.NettyDataBuffer) buffer).getNativeBuffer().refCnt());
+        }
+    }
+
+    private DataBuffer buffer(String text) {
+        DataBuffer buffer = bufferFactory.wrap(text.getBytes(StandardCharsets.UTF_8));
+        buffers.add(buffer);
+        return buffer;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTest {
+
+    private final BlockingQueue<StreamObserver<GetEchoResponse>> pendingCalls = new LinkedBlockingQueue<>();
+
+    private Server server;
+    private ManagedChannel channel;
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new EchoServiceGrpc.EchoServiceImplBase() {
+                    @Override
+                    public void getEcho(GetEchoRequest request, StreamObserver<GetEchoResponse> responseObserver) {
+                        pendingCalls.add(responseObserver);
+                    }
+                })
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setStub(EchoServiceGrpc.newStub(channel))
+                .setMaxConcurrentCalls(EchoServiceRest.Route.GET_ECHO, 1, 1)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void queues_then_rejects_calls_over_the_limit() throws Exception {
+        EchoServiceRest.Bulkhead bulkhead = proxy.getBulkhead(EchoServiceRest.Route.GET_ECHO);
+
+        CompletableFuture<ServerResponse> first = proxy.getEcho(request("1")).toFuture();
+        StreamObserver<GetEchoResponse> firstCall = pendingCalls.poll(5, TimeUnit.SECONDS);
+        CompletableFuture<ServerResponse> second = proxy.getEcho(request("2")).toFuture();
+        assertEquals(1, bulkhead.getInFlightCalls());
+        assertEquals(1, bulkhead.getQueuedCalls());
+        assertTrue(pendingCalls.isEmpty());
+
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> proxy.getEcho(request("3")).toFuture().get(5, TimeUnit.SECONDS));
+        assertTrue(rejected.getCause() instanceof EchoServiceRest.RejectedCallException);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+                ((EchoServiceRest.RejectedCallException) rejected.getCause()).getStatus());
+
+        respond(firstCall);
+        assertEquals(HttpStatus.OK, first.get(5, TimeUnit.SECONDS).statusCode());
+        StreamObserver<GetEchoResponse> secondCall = pendingCalls.poll(5, TimeUnit.SECONDS);
+        assertFalse(second.isDone());
+        assertEquals(1, bulkhead.getInFlightCalls());
+        assertEquals(0, bulkhead.getQueuedCalls());
+
+        respond(secondCall);
+        assertEquals(HttpStatus.OK, second.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals(0, bulkhead.getInFlightCalls());
+    }
+
+    @Test
+    void releases_permit_of_cancelled_waiter() throws Exception {
+        EchoServiceRest.Bulkhead bulkhead = proxy.getBulkhead(EchoServiceRest.Route.GET_ECHO);
+
+        CompletableFuture<ServerResponse> first = proxy.getEcho(request("1")).toFuture();
+        StreamObserver<GetEchoResponse> firstCall = pendingCalls.poll(5, TimeUnit.SECONDS);
+        proxy.getEcho(request("2")).subscribe().dispose();
+        assertEquals(0, bulkhead.getQueuedCalls());
+
+        respond(firstCall);
+        assertEquals(HttpStatus.OK, first.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals(0, bulkhead.getInFlightCalls());
+        assertTrue(pendingCalls.isEmpty());
+    }
+
+    private static MockServerRequest request(String id) {
+        return MockServerRequest.builder().pathVariable("id", id).build();
+    }
+
+    private static void respond(StreamObserver<GetEchoResponse> call) {
+        call.onNext(GetEchoResponse.getDefaultInstance());
+        call.onCompleted();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo;
+
+import com.google.protobuf.Message;
+import io.grpc.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CallListenerTest {
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    private final List<EchoServiceRest.CallTiming> completed = new CopyOnWriteArrayList<>();
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @BeforeEach
+    void setUp() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .addCallListener(new EchoServiceRest.CallListener() {
+                    @Override
+                    public void onRequestDecoded(EchoServiceRest.CallTiming call, Message request) {
+                        events.add("decoded " + request.getClass().getSimpleName());
+                    }
+
+                    @Override
+                    public void onBackendStart(EchoServiceRest.CallTiming call, Message request) {
+                        events.add("start");
+                    }
+
+                    @Override
+                    public void onBackendComplete(EchoServiceRest.CallTiming call, Message response) {
+                        events.add(response == null ? "failed" : "complete " + response.getClass().getSimpleName());
+                    }
+
+                    @Override
+                    public void onResponseWritten(EchoServiceRest.CallTiming call) {
+                        events.add("written " + call.getStatus());
+                        completed.add(call);
+                    }
+                })
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void notifies_the_phases_of_a_call() {
+        proxy.getEcho(MockServerRequest.builder().pathVariable("id", "7").build()).block();
+
+        assertEquals(List.of("decoded GetEchoRequest", "start", "complete GetEchoResponse", "written OK"), events);
+        EchoServiceRest.CallTiming call = completed.get(0);
+        assertEquals(EchoServiceRest.Route.GET_ECHO, call.getRoute());
+        assertTrue(call.getBackendNanos() > 0);
+        assertTrue(call.getEncodeNanos() > 0);
+        assertTrue(call.getResponseSize() > 0);
+    }
+
+    @Test
+    void notifies_failed_calls() {
+        assertThrows(RuntimeException.class, () -> proxy.errorEcho(MockServerRequest.builder().pathVariable("id", "1").build()).block());
+        assertThrows(RuntimeException.class, () -> proxy.getEcho(MockServerRequest.builder().pathVariable("id", "x").build()).block());
+
+        assertEquals(List.of("decoded ErrorEchoRequest", "start", "failed", "written INVALID_ARGUMENT", "written INVALID_ARGUMENT"), events);
+        assertEquals(Status.Code.INVALID_ARGUMENT, completed.get(1).getStatus());
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.demo;
+
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.result.view.ViewResolver;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionTest {
+
+    private final List<String> grpcEncodings = new CopyOnWriteArrayList<>();
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void compresses_responses_as_accepted() throws Exception {
+        proxy = newProxyBuilder()
+                .setResponseCompression(EchoServiceRest.Route.GET_ECHO, 10)
+                .build();
+
+        MockServerWebExchange gzip = render(proxy.getEcho(request("gzip, deflate")).block());
+        assertEquals("gzip", gzip.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(new String(readAll(new GZIPInputStream(body(gzip))), StandardCharsets.UTF_8).contains("EchoService#getEcho"));
+
+        MockServerWebExchange deflate = render(proxy.getEcho(request("gzip;q=0, deflate")).block());
+        assertEquals("deflate", deflate.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(new String(readAll(new InflaterInputStream(body(deflate))), StandardCharsets.UTF_8).contains("EchoService#getEcho"));
+
+        MockServerWebExchange identity = render(proxy.getEcho(request(null)).block());
+        assertNull(identity.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, identity.getResponse().getHeaders().getFirst(HttpHeaders.VARY));
+    }
+
+    @Test
+    void compresses_compositions() throws Exception {
+        proxy = newProxyBuilder()
+                .addComposition(EchoServiceRest.newComposition("/echo_page/{id}")
+                        .addBranch("echo", EchoServiceRest.Route.GET_ECHO, null, EchoServiceRest.FailurePolicy.FAIL)
+                        .setResponseCompression(10))
+                .build();
+        MockServerRequest request = MockServerRequest.builder()
+                .method(HttpMethod.GET)
+                .uri(URI.create("/echo_page/1"))
+                .exchange(MockServerWebExchange.from(MockServerHttpRequest.get("/echo_page/1")))
+                .pathVariable("id", "1")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+
+        MockServerWebExchange exchange = render(proxy.allRoutes().route(request).flatMap(handler -> handler.handle(request)).block());
+        assertEquals("gzip", exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(new String(readAll(new GZIPInputStream(body(exchange))), StandardCharsets.UTF_8).contains("EchoService#getEcho"));
+    }
+
+    @Test
+    void leaves_small_responses_alone() throws Exception {
+        proxy = newProxyBuilder()
+                .setResponseCompression(EchoServiceRest.Route.GET_ECHO, 10_000)
+                .build();
+
+        MockServerWebExchange exchange = render(proxy.getEcho(request("gzip")).block());
+        assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void accepts_compressed_requests() throws Exception {
+        proxy = newProxyBuilder().build();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write("{\"id\": 7, \"content\": \"zipped\"}".getBytes(StandardCharsets.UTF_8));
+        }
+        DataBuffer body = new DefaultDataBufferFactory().wrap(compressed.toByteArray());
+
+        ServerResponse response = proxy.newEcho(MockServerRequest.builder()
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(Flux.just(body))).block();
+        assertTrue(new String(readAll(body(render(response))), StandardCharsets.UTF_8).contains("content:zipped"));
+    }
+
+    @Test
+    void rejects_requests_inflating_past_the_limit() throws Exception {
+        proxy = newProxyBuilder().build();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(("{\"id\": 7, \"content\": \"" + " ".repeat(300 * 1024) + "\"}").getBytes(StandardCharsets.UTF_8));
+        }
+        DataBuffer body = new DefaultDataBufferFactory().wrap(compressed.toByteArray());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> proxy.newEcho(MockServerRequest.builder()
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(Flux.just(body))).block());
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+    }
+
+    @Test
+    void compresses_backend_calls() {
+        proxy = newProxyBuilder()
+                .setGrpcCompression(EchoServiceRest.Route.GET_ECHO, "gzip")
+                .build();
+
+        proxy.getEcho(request(null)).block();
+        proxy.singleGetEcho(request(null)).block();
+        assertEquals(List.of("gzip", "identity"), grpcEncodings);
+    }
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy.Builder newProxyBuilder() {
+        ServerInterceptor recordEncoding = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                String encoding = headers.get(Metadata.Key.of("grpc-encoding", Metadata.ASCII_STRING_MARSHALLER));
+                grpcEncodings.add(encoding == null ? "identity" : encoding);
+                return Contexts.interceptCall(io.grpc.Context.current(), call, headers, next);
+            }
+        };
+        return EchoServiceRest.newGrpcProxyBuilder().setInProcessService(new EchoService(), recordEncoding);
+    }
+
+    private static MockServerRequest request(String acceptEncoding) {
+        MockServerRequest.Builder builder = MockServerRequest.builder().pathVariable("id", "1").queryParam("id", "1");
+        if (acceptEncoding != null) {
+            builder.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return builder.build();
+    }
+
+    private static MockServerWebExchange render(ServerResponse response) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+        response.writeTo(exchange, new ServerResponse.Context() {
+            @Override
+            public List<HttpMessageWriter<?>> messageWriters() {
+                return HandlerStrategies.withDefaults().messageWriters();
+            }
+
+            @Override
+            public List<ViewResolver> viewResolvers() {
+                return List.of();
+            }
+        }).block();
+        return exchange;
+    }
+
+    private static InputStream body(MockServerWebExchange exchange) {
+        return DataBufferUtils.join(exchange.getResponse().getBody()).block().asInputStream(true);
+    }
+
+    private static byte[] readAll(InputStream input) throws IOException {
+        try (input) {
+            return input.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CostSamplingTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void accounts_the_costs_of_sampled_calls() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setMeterRegistry(registry)
+                .setCostSampling(1)
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            proxy.newEcho(MockServerRequest.builder()
+                    .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap("{\"id\": 1, \"content\": \"test\"}".getBytes(StandardCharsets.UTF_8))))).block();
+        }
+
+        EchoServiceRest.RouteCost cost = proxy.getRouteCosts().get(EchoServiceRest.Route.NEW_ECHO.ordinal());
+        assertEquals(EchoServiceRest.Route.NEW_ECHO, cost.getRoute());
+        assertEquals(3, cost.getSamples());
+        assertFalse(cost.getCpuNanos().containsKey("backend"));
+        assertTrue(cost.getAllocatedBytes().get("encode") > 0);
+        assertTrue(cost.getAllocatedBytesPerCall() > 0);
+        assertEquals(3, registry.get("grpc.proxy.allocated").tags("route", "NEW_ECHO", "phase", "bind").summary().count());
+        assertEquals(3, registry.get("grpc.proxy.cpu").tags("route", "NEW_ECHO", "phase", "encode").timer().count());
+    }
+
+    @Test
+    void samples_nothing_by_default() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setMeterRegistry(registry)
+                .build();
+
+        proxy.getEcho(MockServerRequest.builder().pathVariable("id", "1").build()).block();
+
+        assertEquals(0, proxy.getRouteCosts().get(EchoServiceRest.Route.GET_ECHO.ordinal()).getSamples());
+        assertTrue(registry.find("grpc.proxy.cpu").meters().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> EchoServiceRest.newGrpcProxyBuilder().setCostSampling(-1));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo;
+
+import io.grpc.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.result.view.ViewResolver;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ErrorResponseTest {
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @BeforeEach
+    void setUp() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setErrorResponses(true)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void renders_grpc_errors_as_status_json() {
+        ServerResponse response = proxy.errorEcho(MockServerRequest.builder().pathVariable("id", "1").build()).block();
+        assertEquals(HttpStatus.BAD_REQUEST, response.statusCode());
+        assertEquals("{\"code\":3,\"message\":\"Handled Exception!\"}", render(response));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+                proxy.errorEcho(MockServerRequest.builder().pathVariable("id", "2").build()).block().statusCode());
+    }
+
+    @Test
+    void renders_bind_failures_without_stack_traces() {
+        ServerResponse response = proxy.newEcho(MockServerRequest.builder().body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap("{\"content\": \"a \\\"b\\\"\\n\", \"id\": -1}".getBytes(StandardCharsets.UTF_8))))).block();
+        assertEquals(HttpStatus.BAD_REQUEST, response.statusCode());
+        assertEquals("{\"code\":3,\"message\":\"id: value must be greater than or equal to 0\"}", render(response));
+
+        EchoServiceRest.EchoServiceHandlerGrpcProxy passingErrors = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .build();
+        try {
+            ServerWebInputException e = assertThrows(ServerWebInputException.class,
+                    () -> passingErrors.getEcho(MockServerRequest.builder().pathVariable("id", "x").build()).block());
+            assertEquals(0, e.getStackTrace().length);
+        } finally {
+            passingErrors.close();
+        }
+    }
+
+    @Test
+    void renders_failed_compositions_as_status_json() {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy composing = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setErrorResponses(true)
+                .addComposition(EchoServiceRest.newComposition("/echo_page/{id}")
+                        .addBranch("echo", EchoServiceRest.Route.GET_ECHO, null, EchoServiceRest.FailurePolicy.FAIL)
+                        .addBranch("error", EchoServiceRest.Route.ERROR_ECHO, null, EchoServiceRest.FailurePolicy.FAIL))
+                .build();
+        try {
+            MockServerRequest request = MockServerRequest.builder()
+                    .method(HttpMethod.GET)
+                    .uri(URI.create("/echo_page/1"))
+                    .exchange(MockServerWebExchange.from(MockServerHttpRequest.get("/echo_page/1")))
+                    .pathVariable("id", "1")
+                    .build();
+            ServerResponse response = composing.allRoutes().route(request).flatMap(handler -> handler.handle(request)).block();
+            assertEquals(HttpStatus.BAD_REQUEST, response.statusCode());
+            assertEquals("{\"code\":3,\"message\":\"Handled Exception!\"}", render(response));
+        } finally {
+            composing.close();
+        }
+    }
+
+    @Test
+    void escapes_messages() {
+        ServerResponse response = EchoServiceRest.ErrorResponses.render(Status.NOT_FOUND.withDescription("no \"echo\"\n\\").asRuntimeException()).block();
+        assertEquals(HttpStatus.NOT_FOUND, response.statusCode());
+        assertEquals("{\"code\":5,\"message\":\"no \\\"echo\\\"\\u000a\\\\\"}", render(response));
+        assertEquals(499, EchoServiceRest.ErrorResponses.httpStatus(Status.Code.CANCELLED));
+    }
+
+    private static String render(ServerResponse response) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+        response.writeTo(exchange, new ServerResponse.Context() {
+            @Override
+            public List<HttpMessageWriter<?>> messageWriters() {
+                return HandlerStrategies.withDefaults().messageWriters();
+            }
+
+            @Override
+            public List<ViewResolver> viewResolvers() {
+                return List.of();
+            }
+        }).block();
+        return DataBufferUtils.join(exchange.getResponse().getBody()).block().toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EtagTest {
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @BeforeEach
+    void setUp() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setEtags(true)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void tags_get_responses_by_content() {
+        String etag = proxy.getEcho(request("1", null)).block().headers().getETag();
+        assertNotNull(etag);
+        assertEquals(etag, proxy.getEcho(request("1", null)).block().headers().getETag());
+        assertNotEquals(etag, proxy.getEcho(request("2", null)).block().headers().getETag());
+    }
+
+    @Test
+    void answers_not_modified_to_a_matching_tag() {
+        String etag = proxy.getEcho(request("1", null)).block().headers().getETag();
+
+        ServerResponse notModified = proxy.getEcho(request("1", "\"other\", " + etag)).block();
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.statusCode());
+        assertEquals(etag, notModified.headers().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, proxy.getEcho(request("1", etag.substring(2))).block().statusCode());
+
+        assertEquals(HttpStatus.OK, proxy.getEcho(request("2", etag)).block().statusCode());
+    }
+
+    @Test
+    void leaves_other_methods_untagged() {
+        ServerResponse response = proxy.newEcho(MockServerRequest.builder()
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap("{\"id\": 1}".getBytes(StandardCharsets.UTF_8))))).block();
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertNull(response.headers().getETag());
+    }
+
+    private static MockServerRequest request(String id, String ifNoneMatch) {
+        MockServerRequest.Builder builder = MockServerRequest.builder().pathVariable("id", id);
+        if (ifNoneMatch != null) {
+            builder.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return builder.build();
+    }
+}
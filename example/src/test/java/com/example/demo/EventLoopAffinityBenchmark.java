@@ -0,0 +1,177 @@
+package com.example.demo;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.netty.channel.EventLoop;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.EventExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares a proxy on a single channel with the default executor to a proxy with a stub per event loop,
+ * counting the calls completing off their event loop and the context switches of the process.
+ * Run with {@code ./gradlew :example:test --tests '*EventLoopAffinityBenchmark' -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EventLoopAffinityBenchmark {
+
+    private static final int EVENT_LOOPS = 2;
+    private static final int CALLS_PER_EVENT_LOOP = 50_000;
+    private static final int CONCURRENCY_PER_EVENT_LOOP = 32;
+
+    @Test
+    void compare() throws Exception {
+        Server server = NettyServerBuilder.forPort(0)
+                .directExecutor()
+                .addService(new EchoServiceGrpc.EchoServiceImplBase() {
+                    @Override
+                    public void getEcho(GetEchoRequest request, StreamObserver<GetEchoResponse> responseObserver) {
+                        responseObserver.onNext(GetEchoResponse.getDefaultInstance());
+                        responseObserver.onCompleted();
+                    }
+                })
+                .build()
+                .start();
+        NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(EVENT_LOOPS);
+        List<ManagedChannel> channels = new ArrayList<>();
+        try {
+            ManagedChannel shared = NettyChannelBuilder.forAddress("localhost", server.getPort())
+                    .usePlaintext()
+                    .build();
+            channels.add(shared);
+            EchoServiceRest.EchoServiceHandlerGrpcProxy defaultProxy = EchoServiceRest.newGrpcProxyBuilder()
+                    .setStub(EchoServiceGrpc.newStub(shared))
+                    .build();
+
+            Map<EventLoop, EchoServiceGrpc.EchoServiceStub> stubs = new LinkedHashMap<>();
+            for (EventExecutor executor : eventLoopGroup) {
+                ManagedChannel channel = NettyChannelBuilder.forAddress("localhost", server.getPort())
+                        .eventLoopGroup((EventLoop) executor)
+                        .channelType(NioSocketChannel.class)
+                        .usePlaintext()
+                        .build();
+                channels.add(channel);
+                stubs.put((EventLoop) executor, EchoServiceGrpc.newStub(channel));
+            }
+            EchoServiceRest.EchoServiceHandlerGrpcProxy affineProxy = EchoServiceRest.newGrpcProxyBuilder()
+                    .setEventLoopStubs(stubs, EchoServiceRest.StubPicker.ROUND_ROBIN)
+                    .build();
+
+            // Warm up both setups before measuring.
+            run(defaultProxy, eventLoopGroup);
+            run(affineProxy, eventLoopGroup);
+            Result defaultResult = run(defaultProxy, eventLoopGroup);
+            Result affineResult = run(affineProxy, eventLoopGroup);
+            System.out.println("default executor:   " + defaultResult);
+            System.out.println("event loop affine:  " + affineResult);
+            assertTrue(affineResult.hops < defaultResult.hops);
+        } finally {
+            channels.forEach(ManagedChannel::shutdownNow);
+            server.shutdownNow();
+            eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static Result run(EchoServiceRest.EchoServiceHandlerGrpcProxy proxy, NioEventLoopGroup eventLoopGroup) throws Exception {
+        AtomicLong hops = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(EVENT_LOOPS);
+        long contextSwitches = contextSwitches();
+        long start = System.nanoTime();
+        for (EventExecutor eventLoop : eventLoopGroup) {
+            AtomicInteger started = new AtomicInteger();
+            AtomicInteger completed = new AtomicInteger();
+            Runnable[] next = new Runnable[1];
+            next[0] = () -> {
+                if (started.incrementAndGet() > CALLS_PER_EVENT_LOOP) {
+                    return;
+                }
+                proxy.getEcho(MockServerRequest.builder().pathVariable("id", "1").build()).subscribe(response -> {
+                    if (!eventLoop.inEventLoop()) {
+                        hops.incrementAndGet();
+                    }
+                    if (completed.incrementAndGet() == CALLS_PER_EVENT_LOOP) {
+                        done.countDown();
+                    }
+                    // Writing the response goes back to the event loop, as Reactor Netty does.
+                    if (eventLoop.inEventLoop()) {
+                        next[0].run();
+                    } else {
+                        eventLoop.execute(next[0]);
+                    }
+                });
+            };
+            eventLoop.execute(() -> {
+                for (int i = 0; i < CONCURRENCY_PER_EVENT_LOOP; i++) {
+                    next[0].run();
+                }
+            });
+        }
+        assertTrue(done.await(2, TimeUnit.MINUTES));
+        return new Result(System.nanoTime() - start, hops.get(), contextSwitches() - contextSwitches);
+    }
+
+    // Sums the context switches of all threads of the process, or returns -1 off Linux.
+    private static long contextSwitches() throws IOException {
+        Path tasks = Paths.get("/proc/self/task");
+        if (!Files.isDirectory(tasks)) {
+            return -1;
+        }
+        long total = 0;
+        try (Stream<Path> threads = Files.list(tasks)) {
+            for (Path thread : (Iterable<Path>) threads::iterator) {
+                try {
+                    for (String line : Files.readAllLines(thread.resolve("status"))) {
+                        if (line.startsWith("voluntary_ctxt_switches") || line.startsWith("nonvoluntary_ctxt_switches")) {
+                            total += Long.parseLong(line.substring(line.indexOf(':') + 1).trim());
+                        }
+                    }
+                } catch (IOException e) {
+                    // The thread has terminated meanwhile.
+                }
+            }
+        }
+        return total;
+    }
+
+    private static final class Result {
+
+        private final long nanos;
+        private final long hops;
+        private final long contextSwitches;
+
+        private Result(long nanos, long hops, long contextSwitches) {
+            this.nanos = nanos;
+            this.hops = hops;
+            this.contextSwitches = contextSwitches;
+        }
+
+        @Override
+        public String toString() {
+            long calls = (long) EVENT_LOOPS * CALLS_PER_EVENT_LOOP;
+            return String.format("%,d calls/s, %,d of %,d calls completed off their event loop, %,d context switches",
+                    calls * TimeUnit.SECONDS.toNanos(1) / nanos, hops, calls, contextSwitches);
+        }
+    }
+}
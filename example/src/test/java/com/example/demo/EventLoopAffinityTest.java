@@ -0,0 +1,100 @@
+package com.example.demo;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.netty.channel.EventLoop;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.EventExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EventLoopAffinityTest {
+
+    private final List<ManagedChannel> channels = new ArrayList<>();
+
+    private Server server;
+    private NioEventLoopGroup eventLoopGroup;
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = NettyServerBuilder.forPort(0)
+                .directExecutor()
+                .addService(new EchoServiceGrpc.EchoServiceImplBase() {
+                    @Override
+                    public void getEcho(GetEchoRequest request, StreamObserver<GetEchoResponse> responseObserver) {
+                        responseObserver.onNext(GetEchoResponse.getDefaultInstance());
+                        responseObserver.onCompleted();
+                    }
+                })
+                .build()
+                .start();
+        eventLoopGroup = new NioEventLoopGroup(2);
+        Map<EventLoop, EchoServiceGrpc.EchoServiceStub> stubs = new LinkedHashMap<>();
+        for (EventExecutor executor : eventLoopGroup) {
+            EventLoop eventLoop = (EventLoop) executor;
+            ManagedChannel channel = NettyChannelBuilder.forAddress("localhost", server.getPort())
+                    .eventLoopGroup(eventLoop)
+                    .channelType(NioSocketChannel.class)
+                    .usePlaintext()
+                    .build();
+            channels.add(channel);
+            stubs.put(eventLoop, EchoServiceGrpc.newStub(channel));
+        }
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setEventLoopStubs(stubs, EchoServiceRest.StubPicker.ROUND_ROBIN)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channels.forEach(ManagedChannel::shutdownNow);
+        server.shutdownNow();
+        eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).await(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void calls_complete_on_the_event_loop_they_started_on() throws Exception {
+        for (EventExecutor eventLoop : eventLoopGroup) {
+            for (int i = 0; i < 3; i++) {
+                CompletableFuture<Thread> started = new CompletableFuture<>();
+                CompletableFuture<Thread> completed = new CompletableFuture<>();
+                eventLoop.execute(() -> {
+                    started.complete(Thread.currentThread());
+                    proxy.getEcho(request()).subscribe(response -> completed.complete(Thread.currentThread()),
+                            completed::completeExceptionally);
+                });
+                assertSame(started.get(5, TimeUnit.SECONDS), completed.get(5, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    void calls_from_other_threads_use_the_picker() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(HttpStatus.OK, proxy.getEcho(request()).block(Duration.ofSeconds(5)).statusCode());
+        }
+    }
+
+    private static MockServerRequest request() {
+        return MockServerRequest.builder().pathVariable("id", "1").build();
+    }
+}
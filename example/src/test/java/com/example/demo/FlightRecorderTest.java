@@ -0,0 +1,86 @@
+package com.example.demo;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecorderTest {
+
+    private static final String EVENT = "com.example.demo.EchoServiceCall";
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @BeforeEach
+    void setUp() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void records_calls_while_enabled() throws Exception {
+        proxy.getEcho(request("1")).block();
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT);
+            recording.start();
+            proxy.getEcho(request("2")).block();
+            recording.stop();
+            events = read(recording);
+        }
+        proxy.getEcho(request("3")).block();
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("GET_ECHO", event.getString("route"));
+        assertEquals("example.demo.EchoService/GetEcho", event.getString("method"));
+        assertEquals("OK", event.getString("status"));
+        assertTrue(event.getDuration("backend").toNanos() > 0);
+        assertTrue(event.getLong("responseSize") > 0);
+    }
+
+    @Test
+    void records_nothing_while_disabled() throws Exception {
+        try (Recording recording = new Recording()) {
+            recording.disable(EVENT);
+            recording.start();
+            proxy.getEcho(request("1")).block();
+            recording.stop();
+            assertEquals(0, read(recording).size());
+        }
+    }
+
+    private static List<RecordedEvent> read(Recording recording) throws Exception {
+        Path file = Files.createTempFile("calls", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(EVENT))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static MockServerRequest request(String id) {
+        return MockServerRequest.builder().pathVariable("id", id).build();
+    }
+}
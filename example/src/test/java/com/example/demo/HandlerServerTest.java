@@ -33,6 +33,15 @@ class HandlerServerTest {
                 .jsonPath("$.echo.content").isEqualTo("EchoService#getEchoByContent");
     }
 
+    @Test
+    void test_get_server_streaming() {
+        client.get().uri("/echo/1/stream").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.echo.id").isEqualTo("1")
+                .jsonPath("$.echo.content").isEqualTo("EchoService#streamEcho");
+    }
+
     @Test
     void exception_get_path_mismatch_type() {
         client.get().uri("/echo/x").exchange()
@@ -246,4 +255,59 @@ class HandlerServerTest {
                 .expectBody()
                 .jsonPath("$.json").isEqualTo("name1: \"tom1\"\nname2: \"tom2\"\nage: 10\n");
     }
+
+    @Test
+    void batch() {
+        client.post()
+                .uri("/example.demo.EchoService/$batch").contentType(APPLICATION_JSON)
+                .body(fromValue("[{\"method\":\"GET\",\"path\":\"/echo/1\"},"
+                        + "{\"method\":\"POST\",\"path\":\"/echo:custom\",\"body\":{\"echo\":{\"id\":2,\"content\":\"test\"}}},"
+                        + "{\"method\":\"GET\",\"path\":\"/echo/x\"},"
+                        + "{\"method\":\"GET\",\"path\":\"/unknown\"}]")).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(4)
+                .jsonPath("$[?(@.index == 0)].status").isEqualTo(200)
+                .jsonPath("$[?(@.index == 0)].body.echo.content").isEqualTo("EchoService#getEcho")
+                .jsonPath("$[?(@.index == 1)].status").isEqualTo(200)
+                .jsonPath("$[?(@.index == 1)].body.echo.content").isEqualTo("EchoService#customEcho:{id:2, content:test}")
+                .jsonPath("$[?(@.index == 2)].status").isEqualTo(400)
+                .jsonPath("$[?(@.index == 2)].error").isEqualTo("For input string: \"x\"")
+                .jsonPath("$[?(@.index == 3)].status").isEqualTo(404);
+    }
+
+    @Test
+    void batch_rejects_nested_batches() {
+        client.post()
+                .uri("/example.demo.EchoService/$batch").contentType(APPLICATION_JSON)
+                .body(fromValue("[{\"method\":\"POST\",\"path\":\"/example.demo.EchoService/$batch\",\"body\":[]},"
+                        + "{\"method\":\"POST\",\"path\":\"/./example.demo.EchoService/$batch\",\"body\":[]},"
+                        + "{\"method\":\"POST\",\"path\":\"/example.demo.EchoService/%24batch\",\"body\":[]}]")).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[?(@.index == 0)].status").isEqualTo(400)
+                .jsonPath("$[?(@.status == 200)]").isEmpty();
+    }
+
+    @Test
+    void composition() {
+        client.get().uri("/echo_page/1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.echo.echo.id").isEqualTo("1")
+                .jsonPath("$.echo.echo.content").isEqualTo("EchoService#getEcho")
+                .jsonPath("$.error.error.code").isEqualTo(3)
+                .jsonPath("$.error.error.message").isEqualTo("Handled Exception!")
+                .jsonPath("$.single").doesNotExist();
+    }
+
+    @Test
+    void test_route_costs_endpoint() {
+        client.get().uri("/echo/1").exchange().expectStatus().isOk();
+        client.get().uri("/actuator/routecosts").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.route == 'GET_ECHO')].cpuNanos.encode").exists();
+    }
 }
@@ -0,0 +1,60 @@
+package com.example.demo;
+
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.EntityResponse;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InProcessDispatchTest {
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void runs_the_service_on_the_calling_thread() {
+        AtomicReference<Thread> serviceThread = new AtomicReference<>();
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoServiceGrpc.EchoServiceImplBase() {
+                    @Override
+                    public void getEcho(GetEchoRequest request, StreamObserver<GetEchoResponse> responseObserver) {
+                        serviceThread.set(Thread.currentThread());
+                        responseObserver.onNext(GetEchoResponse.getDefaultInstance());
+                        responseObserver.onCompleted();
+                    }
+                })
+                .build();
+
+        ServerResponse response = proxy.getEcho(MockServerRequest.builder().pathVariable("id", "1").build()).block();
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertSame(Thread.currentThread(), serviceThread.get());
+    }
+
+    @Test
+    void runs_the_server_interceptors() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService(), new DemoApplication.HeaderInterceptor())
+                .setIncludeHeaders(Collections.singletonList("my-header-2"))
+                .build();
+
+        ServerResponse response = proxy.getEchoHeader(MockServerRequest.builder()
+                .pathVariable("id", "1")
+                .header("my-header-2", "value-2")
+                .build()).block();
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertTrue(((EntityResponse<?>) response).entity().toString().contains("value-2"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @BeforeEach
+    void setUp() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setMeterRegistry(registry)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void registers_meters_per_route_up_front() {
+        assertEquals(0, registry.get("grpc.proxy.calls").tags("route", "GET_ECHO", "status", "OK").counter().count());
+        assertEquals(0, registry.get("grpc.proxy.in.flight").tags("route", "NEW_ECHO").gauge().value());
+    }
+
+    @Test
+    void times_the_phases_of_a_call() {
+        String json = "{\"id\": 1, \"content\": \"test\"}";
+        proxy.newEcho(MockServerRequest.builder()
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8))))).block();
+
+        for (String phase : new String[]{"decode", "bind", "backend", "encode"}) {
+            Timer timer = registry.get("grpc.proxy.phase").tags("route", "NEW_ECHO", "phase", phase).timer();
+            assertEquals(1, timer.count(), phase);
+        }
+        assertEquals(1, registry.get("grpc.proxy.calls").tags("route", "NEW_ECHO", "status", "OK").counter().count());
+        assertEquals(json.length(), registry.get("grpc.proxy.request.size").tags("route", "NEW_ECHO").summary().totalAmount());
+        assertTrue(registry.get("grpc.proxy.response.size").tags("route", "NEW_ECHO").summary().totalAmount() > 0);
+        assertEquals(0, registry.get("grpc.proxy.in.flight").tags("route", "NEW_ECHO").gauge().value());
+    }
+
+    @Test
+    void counts_calls_by_grpc_status() {
+        assertThrows(RuntimeException.class, () -> proxy.errorEcho(MockServerRequest.builder().pathVariable("id", "1").build()).block());
+        assertThrows(RuntimeException.class, () -> proxy.getEcho(MockServerRequest.builder().pathVariable("id", "x").build()).block());
+
+        assertEquals(1, registry.get("grpc.proxy.calls").tags("route", "ERROR_ECHO", "status", "INVALID_ARGUMENT").counter().count());
+        assertEquals(1, registry.get("grpc.proxy.phase").tags("route", "ERROR_ECHO", "phase", "backend").timer().count());
+        assertEquals(1, registry.get("grpc.proxy.calls").tags("route", "GET_ECHO", "status", "INVALID_ARGUMENT").counter().count());
+        assertEquals(0, registry.get("grpc.proxy.phase").tags("route", "GET_ECHO", "phase", "backend").timer().count());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo;
+
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactorCallsTest {
+
+    private static final int RESPONSES = 100;
+
+    private static final MethodDescriptor<GetEchoRequest, GetEchoRequest> BIDI_STREAM = method(MethodDescriptor.MethodType.BIDI_STREAMING, "Echo");
+    private static final MethodDescriptor<GetEchoRequest, GetEchoRequest> SERVER_STREAM = method(MethodDescriptor.MethodType.SERVER_STREAMING, "Count");
+
+    private final AtomicInteger sentResponses = new AtomicInteger();
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(ServerServiceDefinition.builder("test.Stream")
+                        .addMethod(BIDI_STREAM, ServerCalls.asyncBidiStreamingCall(responseObserver -> new StreamObserver<GetEchoRequest>() {
+                            @Override
+                            public void onNext(GetEchoRequest value) {
+                                responseObserver.onNext(value);
+                            }
+
+                            @Override
+                            public void onError(Throwable t) {
+                            }
+
+                            @Override
+                            public void onCompleted() {
+                                responseObserver.onCompleted();
+                            }
+                        }))
+                        .addMethod(SERVER_STREAM, ServerCalls.asyncServerStreamingCall((request, responseObserver) -> {
+                            // Sends only while the client has room, as flow-controlled servers do.
+                            ServerCallStreamObserver<GetEchoRequest> observer = (ServerCallStreamObserver<GetEchoRequest>) responseObserver;
+                            observer.setOnReadyHandler(() -> {
+                                while (observer.isReady() && sentResponses.get() < RESPONSES) {
+                                    observer.onNext(GetEchoRequest.newBuilder().setId(sentResponses.incrementAndGet()).build());
+                                }
+                                if (sentResponses.get() == RESPONSES) {
+                                    sentResponses.incrementAndGet();
+                                    observer.onCompleted();
+                                }
+                            });
+                        }))
+                        .build())
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void streams_requests_and_responses() {
+        List<Long> ids = EchoServiceRest.ReactorCalls.call(channel, BIDI_STREAM, CallOptions.DEFAULT, new Metadata(),
+                Flux.range(1, 1000).map(i -> GetEchoRequest.newBuilder().setId(i).build()), 16)
+                .map(GetEchoRequest::getId)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(IntStream.rangeClosed(1, 1000).asLongStream().boxed().collect(Collectors.toList()), ids);
+    }
+
+    @Test
+    void requests_responses_as_the_subscriber_demands_them() {
+        List<GetEchoRequest> received = new CopyOnWriteArrayList<>();
+        BaseSubscriber<GetEchoRequest> subscriber = new BaseSubscriber<GetEchoRequest>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                subscription.request(10);
+            }
+
+            @Override
+            protected void hookOnNext(GetEchoRequest value) {
+                received.add(value);
+            }
+        };
+        EchoServiceRest.ReactorCalls.call(channel, SERVER_STREAM, CallOptions.DEFAULT, new Metadata(), Mono.just(GetEchoRequest.getDefaultInstance()), 4)
+                .subscribe(subscriber);
+
+        assertEquals(10, received.size());
+        assertTrue(sentResponses.get() <= 10 + 4, "sent " + sentResponses.get());
+
+        subscriber.request(Long.MAX_VALUE);
+        assertEquals(RESPONSES, received.size());
+    }
+
+    private static MethodDescriptor<GetEchoRequest, GetEchoRequest> method(MethodDescriptor.MethodType type, String name) {
+        return MethodDescriptor.<GetEchoRequest, GetEchoRequest>newBuilder()
+                .setType(type)
+                .setFullMethodName(MethodDescriptor.generateFullMethodName("test.Stream", name))
+                .setRequestMarshaller(ProtoUtils.marshaller(GetEchoRequest.getDefaultInstance()))
+                .setResponseMarshaller(ProtoUtils.marshaller(GetEchoRequest.getDefaultInstance()))
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryHedgingTest {
+
+    private final List<ServerCallStreamObserver<GetEchoResponse>> calls = new CopyOnWriteArrayList<>();
+
+    private Server server;
+    private ManagedChannel channel;
+    private volatile BiConsumer<Integer, StreamObserver<GetEchoResponse>> backend;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new EchoServiceGrpc.EchoServiceImplBase() {
+                    @Override
+                    public void getEcho(GetEchoRequest request, StreamObserver<GetEchoResponse> responseObserver) {
+                        calls.add((ServerCallStreamObserver<GetEchoResponse>) responseObserver);
+                        backend.accept(calls.size(), responseObserver);
+                    }
+                })
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void retries_unavailable_calls() {
+        backend = (call, observer) -> {
+            if (call == 1) {
+                observer.onError(Status.UNAVAILABLE.asRuntimeException());
+            } else {
+                respond(observer);
+            }
+        };
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxyBuilder()
+                .setRetries(EchoServiceRest.Route.GET_ECHO, 2, Duration.ofMillis(1))
+                .build();
+
+        assertEquals(HttpStatus.OK, proxy.getEcho(request()).block(Duration.ofSeconds(5)).statusCode());
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void stops_retrying_once_the_budget_is_spent() {
+        backend = (call, observer) -> observer.onError(Status.UNAVAILABLE.asRuntimeException());
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxyBuilder()
+                .setRetries(EchoServiceRest.Route.GET_ECHO, 2, Duration.ofMillis(1))
+                .setRetryBudget(new EchoServiceRest.RetryBudget(0, 1))
+                .build();
+
+        StatusRuntimeException first = assertThrows(StatusRuntimeException.class,
+                () -> proxy.getEcho(request()).block(Duration.ofSeconds(5)));
+        assertEquals(Status.Code.UNAVAILABLE, first.getStatus().getCode());
+        assertEquals(2, calls.size());
+
+        assertThrows(StatusRuntimeException.class, () -> proxy.getEcho(request()).block(Duration.ofSeconds(5)));
+        assertEquals(3, calls.size());
+    }
+
+    @Test
+    void hedges_slow_calls_and_cancels_the_loser() throws Exception {
+        backend = (call, observer) -> {
+            if (call > 1) {
+                respond(observer);
+            }
+        };
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxyBuilder()
+                .setHedging(EchoServiceRest.Route.GET_ECHO, Duration.ofMillis(20))
+                .build();
+
+        assertEquals(HttpStatus.OK, proxy.getEcho(request()).block(Duration.ofSeconds(5)).statusCode());
+        assertEquals(2, calls.size());
+        for (int i = 0; i < 100 && !calls.get(0).isCancelled(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(calls.get(0).isCancelled());
+    }
+
+    @Test
+    void fails_fast_without_hedging_on_non_retryable_errors() {
+        backend = (call, observer) -> observer.onError(Status.NOT_FOUND.asRuntimeException());
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxyBuilder()
+                .setHedging(EchoServiceRest.Route.GET_ECHO, Duration.ofSeconds(1))
+                .build();
+
+        long start = System.nanoTime();
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> proxy.getEcho(request()).block(Duration.ofSeconds(5)));
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(500).toNanos());
+        assertEquals(1, calls.size());
+        assertEquals(100, proxy.getRetryBudget().getBalance());
+    }
+
+    @Test
+    void cancels_the_hedged_call_on_a_non_retryable_error() throws Exception {
+        backend = (call, observer) -> {
+        };
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxyBuilder()
+                .setHedging(EchoServiceRest.Route.GET_ECHO, Duration.ofMillis(20))
+                .build();
+
+        CompletableFuture<ServerResponse> response = proxy.getEcho(request()).toFuture();
+        for (int i = 0; i < 100 && calls.size() < 2; i++) {
+            Thread.sleep(10);
+        }
+        calls.get(0).onError(Status.NOT_FOUND.asRuntimeException());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(5, TimeUnit.SECONDS));
+        assertEquals(Status.Code.NOT_FOUND, Status.fromThrowable(e.getCause()).getCode());
+        for (int i = 0; i < 100 && !calls.get(1).isCancelled(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(calls.get(1).isCancelled());
+    }
+
+    @Test
+    void rejects_retries_of_non_idempotent_routes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> newProxyBuilder().setRetries(EchoServiceRest.Route.NEW_ECHO, 2, Duration.ofMillis(1)));
+        assertTrue(EchoServiceRest.Route.GET_ECHO_RPC.isIdempotent());
+    }
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy.Builder newProxyBuilder() {
+        return EchoServiceRest.newGrpcProxyBuilder().setStub(EchoServiceGrpc.newStub(channel));
+    }
+
+    private static MockServerRequest request() {
+        return MockServerRequest.builder().pathVariable("id", "1").build();
+    }
+
+    private static void respond(StreamObserver<GetEchoResponse> observer) {
+        observer.onNext(GetEchoResponse.getDefaultInstance());
+        observer.onCompleted();
+    }
+}
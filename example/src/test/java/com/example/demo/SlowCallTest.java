@@ -0,0 +1,89 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowCallTest {
+
+    private final List<EchoServiceRest.SlowCall> logged = new CopyOnWriteArrayList<>();
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void keeps_the_latest_slow_calls_per_route() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setSlowCallThreshold(Duration.ofDays(1))
+                .setSlowCallThreshold(EchoServiceRest.Route.GET_ECHO, Duration.ZERO)
+                .setSlowCallCapacity(2)
+                .setSlowCallRequestLength(8)
+                .addSlowCallListener(logged::add)
+                .build();
+
+        for (int i = 1; i <= 3; i++) {
+            proxy.getEcho(MockServerRequest.builder().pathVariable("id", String.valueOf(i)).build()).block();
+        }
+        proxy.singleGetEcho(MockServerRequest.builder().queryParam("id", "1").build()).block();
+
+        assertEquals(3, logged.size());
+        List<EchoServiceRest.SlowCall> calls = proxy.getSlowCalls();
+        assertEquals(2, calls.size());
+        assertTrue(calls.get(0).getElapsedNanos() >= calls.get(1).getElapsedNanos());
+        for (EchoServiceRest.SlowCall call : calls) {
+            assertEquals(EchoServiceRest.Route.GET_ECHO, call.getRoute());
+            assertTrue(call.getPhaseNanos().get("backend") > 0);
+            assertTrue(call.getResponseSize() > 0);
+            assertEquals(8, call.getRequest().length());
+        }
+        assertTrue(logged.get(2).toString().contains("GET_ECHO OK"), logged.get(2).toString());
+    }
+
+    @Test
+    void prints_only_the_start_of_large_requests() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setSlowCallThreshold(Duration.ZERO)
+                .setSlowCallRequestLength(16)
+                .build();
+        String json = "{\"echo\": {\"id\": 1, \"content\": \"" + "x".repeat(100_000) + "\"}}";
+
+        proxy.newEcho(MockServerRequest.builder()
+                .body(Flux.just(new DefaultDataBufferFactory().wrap(json.getBytes(StandardCharsets.UTF_8))))).block();
+
+        String request = proxy.getSlowCalls().get(0).getRequest();
+        assertEquals(16, request.length());
+        assertTrue(request.startsWith("{"), request);
+    }
+
+    @Test
+    void captures_failed_calls_without_requests_by_default() {
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService())
+                .setSlowCallThreshold(Duration.ZERO)
+                .build();
+
+        assertThrows(RuntimeException.class, () -> proxy.errorEcho(MockServerRequest.builder().pathVariable("id", "1").build()).block());
+
+        EchoServiceRest.SlowCall call = proxy.getSlowCalls().get(0);
+        assertEquals(io.grpc.Status.Code.INVALID_ARGUMENT, call.getStatus());
+        assertNull(call.getRequest());
+    }
+}
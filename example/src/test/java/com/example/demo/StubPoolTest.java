@@ -0,0 +1,234 @@
+package com.example.demo;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StubPoolTest {
+
+    private final Queue<StreamObserver<GetEchoResponse>> pendingCalls = new ConcurrentLinkedQueue<>();
+    private final List<Object> pickedStubs = new CopyOnWriteArrayList<>();
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new EchoServiceGrpc.EchoServiceImplBase() {
+                    @Override
+                    public void getEcho(GetEchoRequest request, StreamObserver<GetEchoResponse> responseObserver) {
+                        pendingCalls.add(responseObserver);
+                    }
+                })
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void round_robin_takes_stubs_in_turn() {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxy(3, EchoServiceRest.StubPicker.ROUND_ROBIN);
+        for (int i = 0; i < 6; i++) {
+            proxy.getEcho(request()).subscribe();
+            respond();
+        }
+        assertEquals(List.of(0, 1, 2, 0, 1, 2), pickedStubs);
+    }
+
+    @Test
+    void least_outstanding_takes_the_idlest_stub() {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxy(3, EchoServiceRest.StubPicker.LEAST_OUTSTANDING);
+        for (int i = 0; i < 3; i++) {
+            proxy.getEcho(request()).subscribe();
+        }
+        EchoServiceRest.StubPool pool = proxy.getStubPool();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, pool.getInFlightCalls(i));
+        }
+
+        int first = (Integer) pickedStubs.get(0);
+        respond();
+        assertEquals(0, pool.getInFlightCalls(first));
+        proxy.getEcho(request()).subscribe();
+        assertEquals(first, pickedStubs.get(3));
+    }
+
+    @Test
+    void power_of_two_choices_balances_in_flight_calls() {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxy(2, EchoServiceRest.StubPicker.POWER_OF_TWO_CHOICES);
+        for (int i = 0; i < 10; i++) {
+            proxy.getEcho(request()).subscribe();
+        }
+        EchoServiceRest.StubPool pool = proxy.getStubPool();
+        assertEquals(5, pool.getInFlightCalls(0));
+        assertEquals(5, pool.getInFlightCalls(1));
+    }
+
+    @Test
+    void cancelled_calls_release_their_stub() {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = newProxy(2, EchoServiceRest.StubPicker.LEAST_OUTSTANDING);
+        proxy.getEcho(request()).subscribe().dispose();
+
+        EchoServiceRest.StubPool pool = proxy.getStubPool();
+        assertEquals(0, pool.getInFlightCalls(0) + pool.getInFlightCalls(1));
+    }
+
+    @Test
+    void affinity_key_pins_calls_to_a_stub() {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setStubs(namedStubs("a", "b", "c", "d"), EchoServiceRest.StubPicker.ROUND_ROBIN)
+                .setAffinityKey(EchoServiceRest.Route.GET_ECHO, "id")
+                .build();
+        for (int i = 0; i < 5; i++) {
+            proxy.getEcho(request("7")).subscribe();
+        }
+        assertEquals(1, new HashSet<>(pickedStubs).size());
+
+        pickedStubs.clear();
+        for (int i = 0; i < 40; i++) {
+            proxy.getEcho(request(Integer.toString(i))).subscribe();
+        }
+        assertEquals(4, new HashSet<>(pickedStubs).size());
+    }
+
+    @Test
+    void calls_without_an_affinity_key_fall_back_to_the_picker() {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setStubs(namedStubs("a", "b", "c", "d"), EchoServiceRest.StubPicker.ROUND_ROBIN)
+                .setAffinityKey(EchoServiceRest.Route.GET_ECHO, "id")
+                .build();
+        for (int i = 0; i < 4; i++) {
+            proxy.getEcho(request("0")).subscribe();
+        }
+        assertEquals(List.of("a", "b", "c", "d"), pickedStubs);
+    }
+
+    @Test
+    void hedged_calls_leave_the_affinity_stub() throws Exception {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setStubs(namedStubs("a", "b", "c", "d"), EchoServiceRest.StubPicker.LEAST_OUTSTANDING)
+                .setAffinityKey(EchoServiceRest.Route.GET_ECHO, "id")
+                .setHedging(EchoServiceRest.Route.GET_ECHO, Duration.ofMillis(20))
+                .build();
+        proxy.getEcho(request("7")).subscribe();
+        for (int i = 0; i < 100 && pickedStubs.size() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, new HashSet<>(pickedStubs).size());
+    }
+
+    @Test
+    void removing_a_stub_only_moves_its_keys() {
+        List<Object> before = route(namedStubs("a", "b", "c", "d"), 200);
+        List<Object> after = route(namedStubs("a", "b", "c"), 200);
+        for (int i = 0; i < 200; i++) {
+            if (!before.get(i).equals("d")) {
+                assertEquals(before.get(i), after.get(i));
+            }
+        }
+        assertTrue(before.contains("d"));
+    }
+
+    @Test
+    void requires_a_stub() {
+        assertThrows(IllegalStateException.class, () -> EchoServiceRest.newGrpcProxyBuilder().build());
+        assertThrows(IllegalArgumentException.class, () -> EchoServiceRest.newGrpcProxyBuilder().setStubs(List.of(), EchoServiceRest.StubPicker.ROUND_ROBIN).build());
+    }
+
+    @Test
+    void rejects_unknown_affinity_keys() {
+        assertThrows(IllegalArgumentException.class, () -> EchoServiceRest.newGrpcProxyBuilder()
+                .setAffinityKey(EchoServiceRest.Route.GET_ECHO, "unknown"));
+        assertThrows(IllegalArgumentException.class, () -> EchoServiceRest.newGrpcProxyBuilder()
+                .setAffinityKey(EchoServiceRest.Route.GET_ECHO, "id.value"));
+    }
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy newProxy(int size, EchoServiceRest.StubPicker picker) {
+        List<EchoServiceGrpc.EchoServiceStub> stubs = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            stubs.add(EchoServiceGrpc.newStub(channel).withInterceptors(recording(i)));
+        }
+        return EchoServiceRest.newGrpcProxyBuilder()
+                .setStubs(stubs, picker)
+                .build();
+    }
+
+    private List<Object> route(Map<String, EchoServiceGrpc.EchoServiceStub> stubs, int keys) {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setStubs(stubs, EchoServiceRest.StubPicker.ROUND_ROBIN)
+                .setAffinityKey(EchoServiceRest.Route.GET_ECHO, "id")
+                .build();
+        pickedStubs.clear();
+        for (int i = 0; i < keys; i++) {
+            proxy.getEcho(request(Integer.toString(i))).subscribe();
+        }
+        return new ArrayList<>(pickedStubs);
+    }
+
+    private Map<String, EchoServiceGrpc.EchoServiceStub> namedStubs(String... ids) {
+        Map<String, EchoServiceGrpc.EchoServiceStub> stubs = new LinkedHashMap<>();
+        for (String id : ids) {
+            stubs.put(id, EchoServiceGrpc.newStub(channel).withInterceptors(recording(id)));
+        }
+        return stubs;
+    }
+
+    private ClientInterceptor recording(Object id) {
+        return new ClientInterceptor() {
+            @Override
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                                       CallOptions callOptions, Channel next) {
+                pickedStubs.add(id);
+                return next.newCall(method, callOptions);
+            }
+        };
+    }
+
+    private static MockServerRequest request() {
+        return request("1");
+    }
+
+    private static MockServerRequest request(String id) {
+        return MockServerRequest.builder().pathVariable("id", id).build();
+    }
+
+    private void respond() {
+        StreamObserver<GetEchoResponse> call = pendingCalls.poll();
+        call.onNext(GetEchoResponse.getDefaultInstance());
+        call.onCompleted();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo;
+
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TracePropagationTest {
+
+    private static final String TRACE_PARENT = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01";
+    private static final Metadata.Key<String> TRACEPARENT = Metadata.Key.of("traceparent", Metadata.ASCII_STRING_MARSHALLER);
+    private static final Metadata.Key<String> TRACESTATE = Metadata.Key.of("tracestate", Metadata.ASCII_STRING_MARSHALLER);
+    private static final Metadata.Key<String> REQUEST_ID = Metadata.Key.of("x-request-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final List<Metadata> backendHeaders = new CopyOnWriteArrayList<>();
+
+    private final List<EchoServiceRest.CallTiming> completed = new CopyOnWriteArrayList<>();
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void passes_the_trace_context_and_request_id_on() {
+        proxy = newProxyBuilder().build();
+
+        proxy.getEcho(request(TRACE_PARENT, "vendor=value", "req-1")).block();
+        proxy.getEcho(request("00-0af7651916cd43dd8448eb211c80319c-0000000000000000-01", "vendor=value", null)).block();
+
+        assertEquals(TRACE_PARENT, backendHeaders.get(0).get(TRACEPARENT));
+        assertEquals("vendor=value", backendHeaders.get(0).get(TRACESTATE));
+        assertEquals("req-1", backendHeaders.get(0).get(REQUEST_ID));
+        assertNull(backendHeaders.get(1).get(TRACEPARENT));
+        assertNull(backendHeaders.get(1).get(TRACESTATE));
+    }
+
+    @Test
+    void passes_the_trace_context_on_blocking_calls() {
+        proxy = newProxyBuilder()
+                .setBlockingScheduler(Schedulers.boundedElastic())
+                .build();
+
+        proxy.getEcho(request(TRACE_PARENT, null, "req-2")).block();
+
+        assertEquals(TRACE_PARENT, backendHeaders.get(0).get(TRACEPARENT));
+        assertEquals("req-2", backendHeaders.get(0).get(REQUEST_ID));
+    }
+
+    @Test
+    void opens_a_span_per_call() {
+        proxy = newProxyBuilder()
+                .setTraceSpans(true)
+                .addCallListener(new EchoServiceRest.CallListener() {
+                    @Override
+                    public void onResponseWritten(EchoServiceRest.CallTiming call) {
+                        completed.add(call);
+                    }
+                })
+                .build();
+
+        proxy.getEcho(request(TRACE_PARENT, null, null)).block();
+        proxy.getEcho(request(null, "vendor=value", null)).block();
+        proxy.getEcho(request("00-invalid", "vendor=value", null)).block();
+
+        EchoServiceRest.CallTiming child = completed.get(0);
+        assertEquals("0af7651916cd43dd8448eb211c80319c", child.getTraceId());
+        assertEquals("b7ad6b7169203331", child.getParentSpanId());
+        assertNotEquals("b7ad6b7169203331", child.getSpanId());
+        assertEquals("00-" + child.getTraceId() + "-" + child.getSpanId() + "-01", backendHeaders.get(0).get(TRACEPARENT));
+        assertTrue(child.getSpanStartMillis() > 0);
+
+        EchoServiceRest.CallTiming root = completed.get(1);
+        assertNull(root.getParentSpanId());
+        assertNotEquals(child.getTraceId(), root.getTraceId());
+        assertEquals("00-" + root.getTraceId() + "-" + root.getSpanId() + "-01", backendHeaders.get(1).get(TRACEPARENT));
+        assertNull(backendHeaders.get(1).get(TRACESTATE));
+
+        EchoServiceRest.CallTiming invalidParent = completed.get(2);
+        assertNull(invalidParent.getParentSpanId());
+        assertEquals("00-" + invalidParent.getTraceId() + "-" + invalidParent.getSpanId() + "-01", backendHeaders.get(2).get(TRACEPARENT));
+        assertNull(backendHeaders.get(2).get(TRACESTATE));
+    }
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy.Builder newProxyBuilder() {
+        ServerInterceptor recordHeaders = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                backendHeaders.add(headers);
+                return Contexts.interceptCall(io.grpc.Context.current(), call, headers, next);
+            }
+        };
+        return EchoServiceRest.newGrpcProxyBuilder().setInProcessService(new EchoService(), recordHeaders);
+    }
+
+    private static MockServerRequest request(String traceParent, String traceState, String requestId) {
+        MockServerRequest.Builder builder = MockServerRequest.builder().pathVariable("id", "1");
+        if (traceParent != null) {
+            builder.header("traceparent", traceParent);
+        }
+        if (traceState != null) {
+            builder.header("tracestate", traceState);
+        }
+        if (requestId != null) {
+            builder.header("X-Request-Id", requestId);
+        }
+        return builder.build();
+    }
+}
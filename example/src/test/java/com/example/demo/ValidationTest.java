@@ -0,0 +1,83 @@
+package com.example.demo;
+
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidationTest {
+
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    private EchoServiceRest.EchoServiceHandlerGrpcProxy proxy;
+
+    @BeforeEach
+    void setUp() {
+        ServerInterceptor countCalls = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                backendCalls.incrementAndGet();
+                return Contexts.interceptCall(io.grpc.Context.current(), call, headers, next);
+            }
+        };
+        proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setInProcessService(new EchoService(), countCalls)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+    }
+
+    @Test
+    void passes_valid_requests() {
+        assertEquals(HttpStatus.OK, newEcho("{\"id\": 1, \"content\": \"test\"}").block().statusCode());
+        assertEquals(1, backendCalls.get());
+    }
+
+    @Test
+    void rejects_invalid_requests_without_calling_the_backend() {
+        assertRejected("{\"id\": -1}", "id: value must be greater than or equal to 0");
+        assertRejected("{\"content\": \"" + "x".repeat(65) + "\"}", "content: value length must be at most 64 characters");
+        assertRejected("{\"content\": \"<b>\"}", "content: value does not match regex pattern");
+        assertEquals(0, backendCalls.get());
+    }
+
+    @Test
+    void rejects_values_between_bounds_that_exclude_a_range() {
+        assertEquals(HttpStatus.OK, newEcho("{\"priority\": 4}").block().statusCode());
+        assertEquals(HttpStatus.OK, newEcho("{\"priority\": 11}").block().statusCode());
+        assertRejected("{\"priority\": 5}", "priority: value must be outside range [5, 10]");
+        assertRejected("{\"priority\": 10}", "priority: value must be outside range [5, 10]");
+        assertEquals(2, backendCalls.get());
+    }
+
+    private void assertRejected(String json, String reason) {
+        ServerWebInputException e = assertThrows(ServerWebInputException.class, () -> newEcho(json).block());
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+        assertTrue(e.getReason().startsWith(reason), e.getReason());
+    }
+
+    private Mono<ServerResponse> newEcho(String json) {
+        return proxy.newEcho(MockServerRequest.builder().body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8)))));
+    }
+}
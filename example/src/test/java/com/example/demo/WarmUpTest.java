@@ -0,0 +1,69 @@
+package com.example.demo;
+
+import io.grpc.ConnectivityState;
+import io.grpc.Contexts;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class WarmUpTest {
+
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    private Server server;
+
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ServerInterceptor countCalls = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                backendCalls.incrementAndGet();
+                return Contexts.interceptCall(io.grpc.Context.current(), call, headers, next);
+            }
+        };
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(new EchoService(), countCalls))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void warms_up_every_route_without_calling_the_backend() {
+        EchoServiceRest.EchoServiceHandlerGrpcProxy proxy = EchoServiceRest.newGrpcProxyBuilder()
+                .setStub(EchoServiceGrpc.newStub(channel))
+                .setEtags(true)
+                .setResponseCompression(EchoServiceRest.Route.GET_ECHO, 0)
+                .build();
+        assertEquals(ConnectivityState.IDLE, channel.getState(false));
+
+        assertEquals(10 * EchoServiceRest.Route.values().length, proxy.warmUp(10));
+
+        assertNotEquals(ConnectivityState.IDLE, channel.getState(false));
+        assertEquals(0, backendCalls.get());
+    }
+}
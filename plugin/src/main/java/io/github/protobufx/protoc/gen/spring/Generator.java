@@ -1,6 +1,7 @@
 package io.github.protobufx.protoc.gen.spring;
 
 
+import com.google.common.base.CaseFormat;
 import io.github.protobufx.protoc.gen.spring.generator.FileGenerationUnit;
 import io.github.protobufx.protoc.gen.spring.generator.ProtocPluginCodeGenerator;
 import io.github.protobufx.protoc.gen.spring.generator.ServiceDescriptor;
@@ -69,6 +70,14 @@ class Generator extends ProtocPluginCodeGenerator {
                 .collect(toList());
         context.put("methods", methods);
         context.put("routeDefinitions", routeDefinitions);
+        context.put("batch", parameters.hasParameter("batch"));
+        context.put("batchPath", "/" + serviceDescriptor.getQualifiedProtoName() + "/$batch");
+        context.put("eventLoopAffinity", parameters.hasParameter("event_loop_affinity"));
+        context.put("springBoot", parameters.hasParameter("spring_boot"));
+        context.put("micrometer", parameters.hasParameter("micrometer"));
+        context.put("reactorCalls", parameters.hasParameter("reactor_calls"));
+        context.put("propertyPrefix", "grpc.proxy." + CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_HYPHEN, serviceDescriptor.getName()));
+        context.put("beanPrefix", CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_CAMEL, serviceDescriptor.getName()));
 
         String serviceHandler = apply("service", context);
 
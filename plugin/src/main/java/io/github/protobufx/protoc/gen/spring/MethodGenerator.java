@@ -2,6 +2,7 @@ package io.github.protobufx.protoc.gen.spring;
 
 import com.google.api.HttpRule;
 import com.google.common.base.CaseFormat;
+import com.google.protobuf.DescriptorProtos.MethodOptions.IdempotencyLevel;
 import com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Label;
 import com.google.protobuf.TextFormat;
 import io.github.protobufx.protoc.gen.spring.generator.*;
@@ -191,6 +192,14 @@ public class MethodGenerator {
         context.put("isRequestJson", isRequestJson);
         context.put("restMethodName", restMethodName);
         context.put("restPathField", restPathField);
+        context.put("routeName", lowerCamelToUpperSnake(restMethodName));
+        context.put("fullMethodName", serviceDescriptor.getQualifiedProtoName() + "/" + serviceMethodDescriptor.getName());
+        context.put("isIdempotent", httpMethod == HttpRule.PatternCase.GET
+                || serviceMethodDescriptor.getProto().getOptions().getIdempotencyLevel() != IdempotencyLevel.IDEMPOTENCY_UNKNOWN);
+        final ValidationRules validationRules = new ValidationRules(lowerCamelToUpperSnake(restMethodName));
+        inputDescriptor.visitFields(validationRules);
+        context.put("validations", validationRules.getValidations());
+        context.put("validationPatterns", validationRules.getPatterns());
         return context;
     }
 
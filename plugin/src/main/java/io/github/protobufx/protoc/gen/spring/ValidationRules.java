@@ -0,0 +1,323 @@
+package io.github.protobufx.protoc.gen.spring;
+
+import com.google.common.base.CaseFormat;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnknownFieldSet;
+import io.github.protobufx.protoc.gen.spring.generator.EnumDescriptor;
+import io.github.protobufx.protoc.gen.spring.generator.FieldDescriptor;
+import io.github.protobufx.protoc.gen.spring.generator.MessageDescriptor;
+
+import javax.annotation.Nonnull;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Turns the field rules of protoc-gen-validate ({@code (validate.rules)}) and buf.validate
+ * ({@code (buf.validate.field)}) on a request message into Java conditions, each true when a request breaks
+ * its rule. The plugin does not depend on either project, so the rules are read from the unknown fields of
+ * the field options, by their field numbers, which both projects share.
+ * <p>
+ * Supported rules: {@code required} on messages, {@code gt}, {@code gte}, {@code lt}, {@code lte} on
+ * int32, int64, float and double, reversed ones included, {@code len}, {@code min_len}, {@code max_len},
+ * {@code pattern} on strings, {@code defined_only} on proto3 enums and {@code min_items}, {@code max_items}
+ * on repeated fields. Other rules are left to the backend.
+ */
+class ValidationRules implements MessageDescriptor.MessageFieldVisitor {
+
+    private static final int PGV_RULES = 1071;
+    private static final int BUF_VALIDATE_FIELD = 1159;
+
+    private static final int FLOAT_RULES = 1;
+    private static final int DOUBLE_RULES = 2;
+    private static final int INT32_RULES = 3;
+    private static final int INT64_RULES = 4;
+    private static final int STRING_RULES = 14;
+    private static final int ENUM_RULES = 16;
+    private static final int MESSAGE_RULES = 17;
+    private static final int REPEATED_RULES = 18;
+    private static final int REQUIRED = 25;
+
+    private final String patternPrefix;
+    private final Deque<FieldDescriptor> path = new ArrayDeque<>();
+    private final Set<String> visitedMessages = new HashSet<>();
+    private final List<Map<String, Object>> validations = new ArrayList<>();
+    private final List<Map<String, Object>> patterns = new ArrayList<>();
+
+    ValidationRules(@Nonnull final String patternPrefix) {
+        this.patternPrefix = patternPrefix;
+    }
+
+    @Nonnull
+    List<Map<String, Object>> getValidations() {
+        return validations;
+    }
+
+    @Nonnull
+    List<Map<String, Object>> getPatterns() {
+        return patterns;
+    }
+
+    @Override
+    public boolean startMessageField(@Nonnull final FieldDescriptor field, @Nonnull final MessageDescriptor messageType) {
+        final Optional<UnknownFieldSet> rules = rules(field);
+        if (field.isList()) {
+            rules.flatMap(r -> submessage(r, REPEATED_RULES)).ifPresent(r -> addRepeatedRules(field, r));
+            path.push(field);
+            return false;
+        }
+        final boolean required = rules.map(r -> bool(r, REQUIRED)
+                || submessage(r, MESSAGE_RULES).map(m -> bool(m, 2)).orElse(false)).orElse(false);
+        if (required) {
+            addValidation("!" + accessor(field, "has", "()"), field, "value is required");
+        }
+        path.push(field);
+        // Recursive messages are checked down to their first repetition.
+        return visitedMessages.add(messageType.getQualifiedOriginalName());
+    }
+
+    @Override
+    public void endMessageField(@Nonnull final FieldDescriptor field, @Nonnull final MessageDescriptor messageType) {
+        path.pop();
+        if (!field.isList()) {
+            visitedMessages.remove(messageType.getQualifiedOriginalName());
+        }
+    }
+
+    @Override
+    public void visitBaseField(@Nonnull final FieldDescriptor field) {
+        final Optional<UnknownFieldSet> rules = rules(field);
+        if (!rules.isPresent()) {
+            return;
+        }
+        if (field.isList()) {
+            submessage(rules.get(), REPEATED_RULES).ifPresent(r -> addRepeatedRules(field, r));
+            return;
+        }
+        final String value = accessor(field, "get", "()");
+        final Type type = field.getProto().getType();
+        if (type == Type.TYPE_STRING) {
+            if (bool(rules.get(), REQUIRED)) {
+                addValidation(value + ".isEmpty()", field, "value is required");
+            }
+            submessage(rules.get(), STRING_RULES).ifPresent(r -> addStringRules(field, value, r));
+        } else if (type == Type.TYPE_INT32) {
+            submessage(rules.get(), INT32_RULES).ifPresent(r -> addBounds(field, value, r, v -> Integer.toString((int) (long) v)));
+        } else if (type == Type.TYPE_INT64) {
+            submessage(rules.get(), INT64_RULES).ifPresent(r -> addBounds(field, value, r, v -> v + "L"));
+        } else if (type == Type.TYPE_FLOAT) {
+            submessage(rules.get(), FLOAT_RULES).ifPresent(r -> addFloatBounds(field, value, r, false));
+        } else if (type == Type.TYPE_DOUBLE) {
+            submessage(rules.get(), DOUBLE_RULES).ifPresent(r -> addFloatBounds(field, value, r, true));
+        }
+    }
+
+    @Override
+    public void visitEnumField(@Nonnull final FieldDescriptor field, @Nonnull final EnumDescriptor enumDescriptor) {
+        final Optional<UnknownFieldSet> rules = rules(field);
+        if (!rules.isPresent()) {
+            return;
+        }
+        if (field.isList()) {
+            submessage(rules.get(), REPEATED_RULES).ifPresent(r -> addRepeatedRules(field, r));
+            return;
+        }
+        // Proto2 enums drop unknown values while parsing, there is nothing left to check.
+        final boolean definedOnly = submessage(rules.get(), ENUM_RULES).map(r -> bool(r, 2)).orElse(false);
+        if (definedOnly && field.isProto3Syntax()) {
+            addValidation(enumDescriptor.getQualifiedOriginalName() + ".forNumber(" + accessor(field, "get", "Value()") + ") == null",
+                    field, "value must be one of the defined enum values");
+        }
+    }
+
+    private void addRepeatedRules(@Nonnull final FieldDescriptor field, @Nonnull final UnknownFieldSet rules) {
+        final String count = accessor(field, "get", "Count()");
+        varint(rules, 1).ifPresent(min -> addValidation(count + " < " + min, field, "value must contain at least " + min + " item(s)"));
+        varint(rules, 2).ifPresent(max -> addValidation(count + " > " + max, field, "value must contain no more than " + max + " item(s)"));
+    }
+
+    private void addStringRules(@Nonnull final FieldDescriptor field, @Nonnull final String value, @Nonnull final UnknownFieldSet rules) {
+        final String length = value + ".codePointCount(0, " + value + ".length())";
+        varint(rules, 19).ifPresent(len -> addValidation(length + " != " + len, field, "value length must be " + len + " characters"));
+        varint(rules, 2).ifPresent(min -> addValidation(length + " < " + min, field, "value length must be at least " + min + " characters"));
+        varint(rules, 3).ifPresent(max -> addValidation(length + " > " + max, field, "value length must be at most " + max + " characters"));
+        string(rules, 6).ifPresent(regex -> {
+            final String name = patternPrefix + "_PATTERN_" + patterns.size();
+            final Map<String, Object> pattern = new HashMap<>();
+            pattern.put("name", name);
+            pattern.put("regex", javaString(regex));
+            patterns.add(pattern);
+            addValidation("!" + name + ".matcher(" + value + ").find()", field, "value does not match regex pattern " + regex);
+        });
+    }
+
+    private void addBounds(@Nonnull final FieldDescriptor field, @Nonnull final String value, @Nonnull final UnknownFieldSet rules,
+                           @Nonnull final Function<Long, String> literal) {
+        final Function<Integer, Optional<Bound>> bound = number ->
+                varint(rules, number).map(limit -> new Bound(number, literal.apply(limit), BigDecimal.valueOf(limit)));
+        addBounds(field, value, bound.apply(4).or(() -> bound.apply(5)), bound.apply(2).or(() -> bound.apply(3)));
+    }
+
+    private void addFloatBounds(@Nonnull final FieldDescriptor field, @Nonnull final String value, @Nonnull final UnknownFieldSet rules,
+                                final boolean isDouble) {
+        final Function<Integer, Optional<Bound>> bound = number -> {
+            final UnknownFieldSet.Field limits = rules.getField(number);
+            final double limit;
+            if (isDouble && !limits.getFixed64List().isEmpty()) {
+                limit = Double.longBitsToDouble(last(limits.getFixed64List()));
+            } else if (!isDouble && !limits.getFixed32List().isEmpty()) {
+                limit = Float.intBitsToFloat(last(limits.getFixed32List()));
+            } else {
+                return Optional.empty();
+            }
+            if (!Double.isFinite(limit)) {
+                return Optional.empty();
+            }
+            final String literal = isDouble ? Double.toString(limit) : Float.toString((float) limit) + "f";
+            return Optional.of(new Bound(number, literal, BigDecimal.valueOf(limit)));
+        };
+        addBounds(field, value, bound.apply(4).or(() -> bound.apply(5)), bound.apply(2).or(() -> bound.apply(3)));
+    }
+
+    // A lower bound above the upper one excludes the range between them, as in protoc-gen-validate.
+    // Conditions are negated so that NaN breaks every bound.
+    private void addBounds(@Nonnull final FieldDescriptor field, @Nonnull final String value,
+                           @Nonnull final Optional<Bound> lower, @Nonnull final Optional<Bound> upper) {
+        if (lower.isPresent() && upper.isPresent() && lower.get().limit.compareTo(upper.get().limit) > 0) {
+            final Bound gt = lower.get();
+            final Bound lt = upper.get();
+            addValidation("!(" + value + gt.operator + gt.literal + " || " + value + lt.operator + lt.literal + ")", field,
+                    "value must be outside range " + (lt.inclusive ? "(" : "[") + lt.literal + ", " + gt.literal + (gt.inclusive ? ")" : "]"));
+            return;
+        }
+        lower.ifPresent(b -> addValidation("!(" + value + b.operator + b.literal + ")", field, "value must be " + b.description + b.literal));
+        upper.ifPresent(b -> addValidation("!(" + value + b.operator + b.literal + ")", field, "value must be " + b.description + b.literal));
+    }
+
+    /**
+     * A {@code gt}, {@code gte}, {@code lt} or {@code lte} rule, by its field number.
+     */
+    private static final class Bound {
+        private final String operator;
+        private final String description;
+        private final boolean inclusive;
+        private final String literal;
+        private final BigDecimal limit;
+
+        Bound(final int number, @Nonnull final String literal, @Nonnull final BigDecimal limit) {
+            this.operator = number == 4 ? " > " : number == 5 ? " >= " : number == 2 ? " < " : " <= ";
+            this.description = number == 4 ? "greater than " : number == 5 ? "greater than or equal to "
+                    : number == 2 ? "less than " : "less than or equal to ";
+            this.inclusive = number == 5 || number == 3;
+            this.literal = literal;
+            this.limit = limit;
+        }
+    }
+
+    private void addValidation(@Nonnull final String condition, @Nonnull final FieldDescriptor field, @Nonnull final String message) {
+        final StringBuilder guardedCondition = new StringBuilder();
+        final List<FieldDescriptor> parents = new ArrayList<>(path);
+        Collections.reverse(parents);
+        for (int i = 0; i < parents.size(); i++) {
+            guardedCondition.append(accessor(parents.subList(0, i), parents.get(i), "has", "()")).append(" && ");
+        }
+        final Map<String, Object> validation = new HashMap<>();
+        validation.put("condition", guardedCondition.append(condition).toString());
+        validation.put("message", javaString(fieldPath(field) + ": " + message));
+        validations.add(validation);
+    }
+
+    @Nonnull
+    private String accessor(@Nonnull final FieldDescriptor field, @Nonnull final String prefix, @Nonnull final String suffix) {
+        final List<FieldDescriptor> parents = new ArrayList<>(path);
+        Collections.reverse(parents);
+        return accessor(parents, field, prefix, suffix);
+    }
+
+    @Nonnull
+    private static String accessor(@Nonnull final List<FieldDescriptor> parents, @Nonnull final FieldDescriptor field,
+                                   @Nonnull final String prefix, @Nonnull final String suffix) {
+        final StringBuilder accessor = new StringBuilder("request");
+        for (FieldDescriptor parent : parents) {
+            accessor.append(".get").append(upperCamel(parent)).append("()");
+        }
+        return accessor.append('.').append(prefix).append(upperCamel(field)).append(suffix).toString();
+    }
+
+    @Nonnull
+    private String fieldPath(@Nonnull final FieldDescriptor field) {
+        final StringJoiner joiner = new StringJoiner(".");
+        final List<FieldDescriptor> parents = new ArrayList<>(path);
+        Collections.reverse(parents);
+        parents.forEach(parent -> joiner.add(parent.getProto().getName()));
+        return joiner.add(field.getProto().getName()).toString();
+    }
+
+    @Nonnull
+    private static String upperCamel(@Nonnull final FieldDescriptor field) {
+        return CaseFormat.LOWER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, field.getProto().getName());
+    }
+
+    @Nonnull
+    private static Optional<UnknownFieldSet> rules(@Nonnull final FieldDescriptor field) {
+        final UnknownFieldSet options = field.getProto().getOptions().getUnknownFields();
+        if (options.hasField(PGV_RULES)) {
+            return submessage(options, PGV_RULES);
+        }
+        return submessage(options, BUF_VALIDATE_FIELD);
+    }
+
+    // Repeated occurrences of a message field are merged, as protobuf parsers do.
+    @Nonnull
+    private static Optional<UnknownFieldSet> submessage(@Nonnull final UnknownFieldSet message, final int number) {
+        if (!message.hasField(number)) {
+            return Optional.empty();
+        }
+        final UnknownFieldSet.Builder merged = UnknownFieldSet.newBuilder();
+        try {
+            for (ByteString bytes : message.getField(number).getLengthDelimitedList()) {
+                merged.mergeFrom(bytes);
+            }
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException("Invalid validation rules", e);
+        }
+        return Optional.of(merged.build());
+    }
+
+    @Nonnull
+    private static Optional<Long> varint(@Nonnull final UnknownFieldSet message, final int number) {
+        final List<Long> values = message.getField(number).getVarintList();
+        return values.isEmpty() ? Optional.empty() : Optional.of(last(values));
+    }
+
+    private static boolean bool(@Nonnull final UnknownFieldSet message, final int number) {
+        return varint(message, number).map(value -> value != 0).orElse(false);
+    }
+
+    @Nonnull
+    private static Optional<String> string(@Nonnull final UnknownFieldSet message, final int number) {
+        final List<ByteString> values = message.getField(number).getLengthDelimitedList();
+        return values.isEmpty() ? Optional.empty() : Optional.of(last(values).toStringUtf8());
+    }
+
+    private static <T> T last(@Nonnull final List<T> values) {
+        return values.get(values.size() - 1);
+    }
+
+    @Nonnull
+    private static String javaString(@Nonnull final String value) {
+        final StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+}